@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Mede o tempo ate a primeira requisicao respondida e o RSS do processo Java nas duas imagens:
+#   jar = Dockerfile (fat jar)   |   aot = Dockerfile.aot (Spring AOT + CDS)
+# cada uma com e sem inicializacao preguicosa (perfil Spring "lazy").
+# Usa o banco de SPRING_DATASOURCE_URL/USERNAME/PASSWORD, obrigatorias no ambiente (sem padrao).
+# Uso: ./medir-inicializacao.sh [repeticoes]
+set -euo pipefail
+
+REPETICOES=${1:-5}
+PORTA=${PORTA:-18080}
+LIMITE_S=${LIMITE_S:-180}
+: "${SPRING_DATASOURCE_URL:?defina SPRING_DATASOURCE_URL}"
+: "${SPRING_DATASOURCE_USERNAME:?defina SPRING_DATASOURCE_USERNAME}"
+: "${SPRING_DATASOURCE_PASSWORD:?defina SPRING_DATASOURCE_PASSWORD}"
+export SPRING_DATASOURCE_URL SPRING_DATASOURCE_USERNAME SPRING_DATASOURCE_PASSWORD
+
+cd "$(dirname "$0")"
+echo "Construindo imagens..."
+docker build -q -t consumoenergetico:jar -f Dockerfile . >/dev/null
+docker build -q -t consumoenergetico:aot -f Dockerfile.aot . >/dev/null
+
+# imprime "<ms ate a primeira requisicao> <RSS em kB>"
+medir() {
+    local imagem=$1 perfis=$2 inicio fim id rss
+    inicio=$(date +%s%N)
+    id=$(docker run -d -p "$PORTA:8080" \
+        -e SPRING_PROFILES_ACTIVE="$perfis" \
+        -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD \
+        "$imagem")
+    # primeira requisicao de verdade (passa pelo banco), nao so o health
+    until curl -sf -o /dev/null "http://localhost:$PORTA/api/consumo?size=1"; do
+        if (( ($(date +%s%N) - inicio) / 1000000000 > LIMITE_S )); then
+            docker logs "$id" | tail -n 20 >&2
+            docker rm -f "$id" >/dev/null
+            echo "Timeout aguardando $imagem ($perfis)" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    fim=$(date +%s%N)
+    # o PID 1 pode ser o sh do ENTRYPOINT: procura o processo java
+    rss=$(docker exec "$id" sh -c 'for p in /proc/[0-9]*; do
+            grep -q java "$p/cmdline" 2>/dev/null && grep VmRSS "$p/status"; done' | awk '{print $2}' | sort -n | tail -n 1)
+    docker rm -f "$id" >/dev/null
+    echo "$(( (fim - inicio) / 1000000 )) $rss"
+}
+
+printf "%-8s %-10s %22s %14s\n" "imagem" "perfis" "primeira requisicao ms" "RSS MB"
+for imagem in jar aot; do
+    for perfis in prod prod,lazy; do
+        total_ms=0
+        total_rss=0
+        for ((i = 0; i < REPETICOES; i++)); do
+            read -r ms rss < <(medir "consumoenergetico:$imagem" "$perfis")
+            total_ms=$((total_ms + ms))
+            total_rss=$((total_rss + rss))
+        done
+        printf "%-8s %-10s %22d %14d\n" "$imagem" "$perfis" \
+            $((total_ms / REPETICOES)) $((total_rss / REPETICOES / 1024))
+    done
+done
@@ -0,0 +1,72 @@
+package br.com.fiap.consumoenergetico.carga;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// latências (ns) e instantes de conclusão de um endpoint, em arrays primitivos que crescem sob demanda
+class Amostras {
+
+    private long[] instantes = new long[1024];
+    private long[] latencias = new long[1024];
+    private int tamanho;
+    private long erros;
+    private final Map<String, Long> motivosErro = new TreeMap<>();
+
+    // erro == null: resposta com o status esperado; senão, o status recebido ou o nome da exceção
+    synchronized void registrar(long instante, long latenciaNs, String erro) {
+        if (tamanho == latencias.length) {
+            instantes = Arrays.copyOf(instantes, tamanho * 2);
+            latencias = Arrays.copyOf(latencias, tamanho * 2);
+        }
+        instantes[tamanho] = instante;
+        latencias[tamanho] = latenciaNs;
+        tamanho++;
+        if (erro != null) {
+            erros++;
+            motivosErro.merge(erro, 1L, Long::sum);
+        }
+    }
+
+    synchronized ResumoEndpoint resumir(String endpoint, double segundos) {
+        long[] ordenadas = Arrays.copyOf(latencias, tamanho);
+        Arrays.sort(ordenadas);
+        return new ResumoEndpoint(
+                endpoint,
+                tamanho,
+                erros,
+                tamanho == 0 ? 0 : (double) erros / tamanho,
+                tamanho / segundos,
+                percentil(ordenadas, 0.50),
+                percentil(ordenadas, 0.95),
+                percentil(ordenadas, 0.99),
+                tamanho == 0 ? 0 : ordenadas[tamanho - 1] / 1e6,
+                new TreeMap<>(motivosErro));
+    }
+
+    // p95 (ms) das amostras concluídas em [de, ate); NaN se a janela tiver poucas amostras
+    synchronized double p95Janela(long de, long ate, int minimo) {
+        long[] janela = new long[tamanho];
+        int n = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (instantes[i] >= de && instantes[i] < ate) {
+                janela[n++] = latencias[i];
+            }
+        }
+        if (n < minimo) {
+            return Double.NaN;
+        }
+        long[] ordenadas = Arrays.copyOf(janela, n);
+        Arrays.sort(ordenadas);
+        return percentil(ordenadas, 0.95);
+    }
+
+    // nearest-rank, em ms
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+}
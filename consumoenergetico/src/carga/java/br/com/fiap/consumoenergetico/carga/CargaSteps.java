@@ -0,0 +1,275 @@
+package br.com.fiap.consumoenergetico.carga;
+
+import br.com.fiap.consumoenergetico.ConsumoenergeticoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.pt.Dado;
+import io.cucumber.java.pt.E;
+import io.cucumber.java.pt.Entao;
+import io.cucumber.java.pt.Quando;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Scanner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Steps da suíte de carga.
+ * - Sobe a aplicação no perfil "test" com H2 em memória (ou usa -DbaseUrl, se informado)
+ * - Reaproveita os payloads de src/test/resources/payloads
+ * - Os números do .feature são padrões; -Dcarga.usuarios, -Dcarga.taxa, -Dcarga.duracao (s),
+ *   -Dcarga.aquecimento (s), -Dcarga.tolerancia (%) e -Dcarga.erros.max (%) sobrescrevem
+ * - Sem linha de base da mesma configuração o cenário falha com -Dcarga.linha-base.opcional=false; o perfil
+ *   carga usa true (só registra no relatório) enquanto src/carga/linha-base.json não for versionada
+ */
+public class CargaSteps {
+
+    private static ConfigurableApplicationContext contexto;
+    private static String baseUrl;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Scenario cenario;
+    private long[] idsEstaveis = new long[0];
+    private int usuarios;
+    private int taxa;
+    private long duracaoSegundos;
+    private List<ResumoEndpoint> resumo;
+    private ResultadoCarga resultado;
+
+    @BeforeAll
+    public static void subir() {
+        String prop = System.getProperty("baseUrl");
+        if (prop != null && !prop.isBlank()) {
+            baseUrl = prop.endsWith("/") ? prop.substring(0, prop.length() - 1) : prop;
+            return;
+        }
+        // argumentos de linha de comando: precedem o application-test.properties (que aponta para o Oracle)
+        contexto = new SpringApplicationBuilder(ConsumoenergeticoApplication.class).run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:consumo-carga;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.devtools.restart.enabled=false");
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        baseUrl = "http://localhost:" + porta + "/api";
+    }
+
+    @AfterAll
+    public static void derrubar() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    @Before
+    public void antes(Scenario cenario) {
+        this.cenario = cenario;
+        RestAssured.baseURI = baseUrl;
+    }
+
+    // =========================
+    // Preparação
+    // =========================
+
+    @Dado("que existem {int} consumos cadastrados via {string}")
+    public void que_existem_consumos_cadastrados_via(Integer quantidade, String payloadFile) {
+        String body = readResource("payloads/" + payloadFile);
+        idsEstaveis = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            Response resposta = RestAssured
+                    .given()
+                    .contentType(ContentType.JSON)
+                    .body(body)
+                    .when()
+                    .post("/consumo")
+                    .then()
+                    .extract().response();
+            if (resposta.statusCode() != 201) {
+                throw new AssertionError("Esperava 201 ao preparar dado, recebi: "
+                        + resposta.statusCode() + " body=" + resposta.asString());
+            }
+            idsEstaveis[i] = resposta.jsonPath().getLong("id");
+        }
+    }
+
+    // =========================
+    // Carga
+    // =========================
+
+    @Quando("eu disparo tráfego misto com {int} usuários a {int} requisições por segundo durante {int} segundos:")
+    public void eu_disparo_trafego_misto(Integer usuarios, Integer taxa, Integer segundos, DataTable tabela) {
+        disparar(usuarios, taxa, segundos, tabela);
+    }
+
+    @Quando("eu disparo tráfego misto com {int} usuários a {int} requisições por segundo durante {int} minutos:")
+    public void eu_disparo_trafego_misto_por_minutos(Integer usuarios, Integer taxa, Integer minutos, DataTable tabela) {
+        disparar(usuarios, taxa, minutos * 60L, tabela);
+    }
+
+    private void disparar(int usuariosPadrao, int taxaPadrao, long segundosPadrao, DataTable tabela) {
+        usuarios = Integer.getInteger("carga.usuarios", usuariosPadrao);
+        taxa = Integer.getInteger("carga.taxa", taxaPadrao);
+        duracaoSegundos = Long.getLong("carga.duracao", segundosPadrao);
+        long aquecimento = Long.getLong("carga.aquecimento", 5);
+
+        List<OperacaoCarga> operacoes = new ArrayList<>();
+        Map<String, String> payloads = new LinkedHashMap<>();
+        for (Map<String, String> linha : tabela.asMaps(String.class, String.class)) {
+            String payload = linha.get("payload");
+            OperacaoCarga operacao = new OperacaoCarga(
+                    linha.get("metodo").trim().toUpperCase(),
+                    linha.get("endpoint").trim(),
+                    payload == null || payload.isBlank() ? null : payload.trim(),
+                    Integer.parseInt(linha.get("peso").trim()),
+                    Integer.parseInt(linha.get("status").trim()));
+            operacoes.add(operacao);
+            if (operacao.payload() != null) {
+                payloads.put(operacao.payload(), readResource("payloads/" + operacao.payload()));
+            }
+        }
+
+        GeradorCarga gerador = new GeradorCarga(baseUrl, operacoes, payloads, idsEstaveis);
+        if (aquecimento > 0) {
+            // JIT, pool de conexões e cache aquecidos; as amostras desta fase são descartadas
+            gerador.executar(usuarios, taxa, Duration.ofSeconds(aquecimento));
+        }
+        resultado = gerador.executar(usuarios, taxa, Duration.ofSeconds(duracaoSegundos));
+        resumo = resultado.resumir();
+        relatar();
+    }
+
+    // =========================
+    // Asserções
+    // =========================
+
+    @Entao("a taxa de erros de cada endpoint deve ficar abaixo de {int}%")
+    public void a_taxa_de_erros_deve_ficar_abaixo_de(Integer percentual) {
+        double limite = percentual(System.getProperty("carga.erros.max"), percentual);
+        List<String> acima = new ArrayList<>();
+        for (ResumoEndpoint endpoint : resumo) {
+            if (endpoint.taxaErro() >= limite) {
+                acima.add(String.format("%s: %.2f%% de erros %s", endpoint.endpoint(),
+                        endpoint.taxaErro() * 100, endpoint.motivosErro()));
+            }
+        }
+        assertThat("Endpoints acima de " + limite * 100 + "% de erros", acima, empty());
+    }
+
+    @E("o p95 do fim do teste não deve passar de {int}% do p95 do início")
+    public void o_p95_do_fim_nao_deve_passar_do_inicio(Integer percentual) {
+        List<String> degradados = new ArrayList<>();
+        // primeiro e último décimo do teste; janelas com menos de 50 amostras não contam
+        resultado.p95InicioEFim(0.1, 50).forEach((endpoint, p95) -> {
+            if (!Double.isNaN(p95[0]) && !Double.isNaN(p95[1]) && p95[1] > p95[0] * percentual / 100.0) {
+                degradados.add(String.format("%s: p95 foi de %.2f ms para %.2f ms", endpoint, p95[0], p95[1]));
+            }
+        });
+        degradados.forEach(cenario::log);
+        assertThat("Latência degradou ao longo do teste", degradados, empty());
+    }
+
+    @E("nenhum endpoint deve regredir mais de {int}% em relação à linha de base")
+    public void nenhum_endpoint_deve_regredir(Integer percentual) {
+        File arquivo = new File(System.getProperty("carga.linha-base", "src/carga/linha-base.json"));
+        double tolerancia = percentual(System.getProperty("carga.tolerancia"), percentual);
+        double folgaMs = Double.parseDouble(System.getProperty("carga.folga-ms", "2"));
+
+        if (Boolean.getBoolean("carga.linha-base.gravar")) {
+            LinhaBase.gravar(arquivo, cenario.getName(), new LinhaBase(usuarios, taxa, duracaoSegundos, resumo));
+            cenario.log("Linha de base gravada em " + arquivo.getAbsolutePath());
+            return;
+        }
+
+        // sem comparação possível o cenário falha, salvo com carga.linha-base.opcional=true: padrão do perfil
+        // carga (pom.xml) até a linha de base da máquina de referência ser versionada, e útil depois para
+        // carga exploratória com outra taxa ou duração
+        boolean opcional = Boolean.getBoolean("carga.linha-base.opcional");
+        Optional<LinhaBase> base = LinhaBase.ler(arquivo, cenario.getName());
+        String semComparacao = null;
+        if (base.isEmpty()) {
+            semComparacao = "Sem linha de base para \"" + cenario.getName() + "\" em " + arquivo
+                    + "; grave uma com -Dcarga.linha-base.gravar=true";
+        } else if (!base.get().mesmaConfiguracao(usuarios, taxa, duracaoSegundos)) {
+            semComparacao = "Linha de base gravada com outra configuração (" + base.get().usuarios() + " usuários, "
+                    + base.get().taxa() + " req/s, " + base.get().duracaoSegundos() + " s)";
+        }
+        if (semComparacao != null) {
+            if (!opcional) {
+                throw new AssertionError(semComparacao + " (ou rode com -Dcarga.linha-base.opcional=true)");
+            }
+            cenario.log(semComparacao + "; comparação ignorada (-Dcarga.linha-base.opcional=true)");
+            return;
+        }
+
+        List<String> regressoes = base.get().regressoes(resumo, tolerancia, folgaMs, 0.01);
+        regressoes.forEach(cenario::log);
+        assertThat("Regressões acima de " + Math.round(tolerancia * 100) + "% da linha de base", regressoes, empty());
+    }
+
+    // =========================
+    // Utilitários de apoio
+    // =========================
+
+    private void relatar() {
+        StringBuilder tabela = new StringBuilder(String.format("%s: %d usuários, %s, %d s%n",
+                cenario.getName(), usuarios, taxa > 0 ? taxa + " req/s" : "sem limite de taxa", duracaoSegundos));
+        tabela.append(String.format("%-56s %9s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "reqs", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (ResumoEndpoint e : resumo) {
+            tabela.append(String.format("%-56s %9d %7.2f%% %8.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    e.endpoint(), e.requisicoes(), e.taxaErro() * 100, e.vazao(),
+                    e.p50Ms(), e.p95Ms(), e.p99Ms(), e.maxMs()));
+        }
+        System.out.print(tabela);
+        cenario.log(tabela.toString());
+
+        File saida = new File(System.getProperty("carga.saida", "target/carga"),
+                cenario.getName().replaceAll("[^A-Za-z0-9]+", "-").toLowerCase() + ".json");
+        try {
+            saida.getParentFile().mkdirs();
+            mapper.writerWithDefaultPrettyPrinter()
+                    .writeValue(saida, new LinhaBase(usuarios, taxa, duracaoSegundos, resumo));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar o resultado em " + saida, e);
+        }
+    }
+
+    // -Dcarga.* em %, aceitando decimais ("0.5"); devolve fração
+    private static double percentual(String sobrescrito, int padrao) {
+        return (sobrescrito == null ? padrao : Double.parseDouble(sobrescrito)) / 100.0;
+    }
+
+    private String readResource(String path) {
+        InputStream is = getClass().getClassLoader().getResourceAsStream(path);
+        if (is == null) throw new IllegalArgumentException("Recurso não encontrado: " + path);
+        try (Scanner s = new Scanner(is, StandardCharsets.UTF_8)) {
+            s.useDelimiter("\\A");
+            return s.hasNext() ? s.next() : "";
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package br.com.fiap.consumoenergetico.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// N usuários concorrentes sorteando operações da tabela pelo peso. Com taxa > 0 as requisições têm horário
+// marcado (inicio + k / taxa) e a latência conta a partir dele: se o servidor atrasa, a fila que se forma
+// entra na medida em vez de sumir (coordinated omission). Com taxa 0 cada usuário dispara em sequência.
+// Usa o HttpClient do JDK: o Rest-Assured monta um cliente por requisição e pesaria mais que a própria API.
+public class GeradorCarga {
+
+    private final HttpClient cliente;
+    private final String baseUrl;
+    private final List<OperacaoCarga> operacoes;
+    private final Map<String, String> payloads;
+    private final long[] idsEstaveis;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ConcurrentLinkedQueue<Long> idsCriados = new ConcurrentLinkedQueue<>();
+    // última versão vista de cada id estável; o PUT exige a versão lida
+    private final Map<Long, Long> versoes = new ConcurrentHashMap<>();
+    private final int pesoTotal;
+
+    public GeradorCarga(String baseUrl, List<OperacaoCarga> operacoes, Map<String, String> payloads, long[] idsEstaveis) {
+        if (idsEstaveis.length == 0 && operacoes.stream().anyMatch(o -> o.precisaDeId() && !o.consomeId())) {
+            throw new IllegalArgumentException("GET/PUT por id precisam de consumos cadastrados antes da carga");
+        }
+        this.baseUrl = baseUrl;
+        this.operacoes = operacoes;
+        this.payloads = payloads;
+        this.idsEstaveis = idsEstaveis;
+        this.pesoTotal = operacoes.stream().mapToInt(OperacaoCarga::peso).sum();
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public ResultadoCarga executar(int usuarios, int taxa, Duration duracao) {
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        long intervalo = taxa > 0 ? 1_000_000_000L / taxa : 0;
+        AtomicLong sequencia = new AtomicLong();
+        ResultadoCarga resultado = new ResultadoCarga(operacoes, inicio);
+
+        ExecutorService executor = Executors.newFixedThreadPool(usuarios);
+        try {
+            List<Callable<Void>> tarefas = new ArrayList<>();
+            for (int i = 0; i < usuarios; i++) {
+                int usuario = i;
+                tarefas.add(() -> {
+                    usuario(usuario, usuarios, inicio, fim, intervalo, sequencia, resultado);
+                    return null;
+                });
+            }
+            for (Future<Void> tarefa : executor.invokeAll(tarefas)) {
+                tarefa.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no gerador de carga", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        // as últimas respostas chegam depois do fim planejado; a vazão é medida até a última delas
+        resultado.encerrar(System.nanoTime());
+        return resultado;
+    }
+
+    private void usuario(int usuario, int usuarios, long inicio, long fim, long intervalo, AtomicLong sequencia,
+                         ResultadoCarga resultado) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        while (true) {
+            long agendado;
+            if (intervalo > 0) {
+                agendado = inicio + sequencia.getAndIncrement() * intervalo;
+                // horários que já venceram depois do fim não são mais enviados
+                if (agendado >= fim || System.nanoTime() >= fim) {
+                    return;
+                }
+                long espera = agendado - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+            } else {
+                agendado = System.nanoTime();
+                if (agendado >= fim) {
+                    return;
+                }
+            }
+
+            OperacaoCarga operacao = sortear(aleatorio);
+            Long id = null;
+            if (operacao.consomeId()) {
+                id = idsCriados.poll();
+                if (id == null) {
+                    // nada criado ainda para remover: vira um cadastro
+                    operacao = primeiroPost();
+                }
+            } else if ("PUT".equals(operacao.metodo())) {
+                id = idDoUsuario(usuario, usuarios, aleatorio);
+            } else if (operacao.precisaDeId()) {
+                id = idsEstaveis[aleatorio.nextInt(idsEstaveis.length)];
+            }
+
+            String erro = enviar(operacao, id);
+            long concluido = System.nanoTime();
+            resultado.amostras(operacao).registrar(concluido, concluido - agendado, erro);
+        }
+    }
+
+    // PUT só nos ids estáveis do próprio usuário (índice % usuarios): dois PUTs simultâneos no mesmo id
+    // disputariam a mesma versão e um deles daria 409. Com mais usuários que ids, volta ao sorteio geral
+    private long idDoUsuario(int usuario, int usuarios, ThreadLocalRandom aleatorio) {
+        int proprios = (idsEstaveis.length - usuario + usuarios - 1) / usuarios;
+        if (proprios == 0) {
+            return idsEstaveis[aleatorio.nextInt(idsEstaveis.length)];
+        }
+        return idsEstaveis[usuario + aleatorio.nextInt(proprios) * usuarios];
+    }
+
+    private OperacaoCarga sortear(ThreadLocalRandom aleatorio) {
+        int sorteio = aleatorio.nextInt(pesoTotal);
+        for (OperacaoCarga operacao : operacoes) {
+            sorteio -= operacao.peso();
+            if (sorteio < 0) {
+                return operacao;
+            }
+        }
+        return operacoes.get(operacoes.size() - 1);
+    }
+
+    private OperacaoCarga primeiroPost() {
+        return operacoes.stream()
+                .filter(o -> "POST".equals(o.metodo()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("DELETE na carga exige um POST na tabela"));
+    }
+
+    // null se veio o status esperado; senão o status recebido ou o nome da exceção
+    private String enviar(OperacaoCarga operacao, Long id) {
+        String caminho = id == null ? operacao.endpoint() : operacao.endpoint().replace("{id}", String.valueOf(id));
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .timeout(Duration.ofSeconds(30));
+        switch (operacao.metodo()) {
+            case "GET" -> requisicao.GET();
+            case "DELETE" -> requisicao.DELETE();
+            case "POST" -> requisicao.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo(operacao, id)));
+            case "PUT" -> requisicao.header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(corpo(operacao, id)));
+            default -> throw new IllegalArgumentException("Método não suportado: " + operacao.metodo());
+        }
+
+        try {
+            HttpResponse<String> resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+            if (resposta.statusCode() != operacao.status()) {
+                return String.valueOf(resposta.statusCode());
+            }
+            if ("POST".equals(operacao.metodo())) {
+                guardarIdCriado(resposta.body());
+            } else if ("PUT".equals(operacao.metodo())) {
+                guardarVersao(id, resposta.body());
+            }
+            return null;
+        } catch (IOException e) {
+            return e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrompida";
+        }
+    }
+
+    private String corpo(OperacaoCarga operacao, Long id) {
+        String payload = payloads.get(operacao.payload());
+        if (payload == null) {
+            throw new IllegalArgumentException(operacao.nome() + " sem payload na tabela");
+        }
+        if (id == null || !"PUT".equals(operacao.metodo())) {
+            return payload;
+        }
+        try {
+            ObjectNode raiz = (ObjectNode) mapper.readTree(payload);
+            raiz.put("id", id);
+            // ids estáveis acabaram de ser cadastrados: versão 0 até o primeiro PUT
+            raiz.put("versao", versoes.getOrDefault(id, 0L));
+            return mapper.writeValueAsString(raiz);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Payload inválido: " + operacao.payload(), e);
+        }
+    }
+
+    // só avança: respostas de PUTs seguidos no mesmo id podem chegar fora de ordem
+    private void guardarVersao(long id, String corpo) {
+        try {
+            JsonNode versao = mapper.readTree(corpo).get("versao");
+            if (versao != null && versao.canConvertToLong()) {
+                versoes.merge(id, versao.asLong(), Math::max);
+            }
+        } catch (IOException e) {
+            // sem versão na resposta: o próximo PUT neste id pode dar 409
+        }
+    }
+
+    // POST em lote não devolve id; aí não há o que guardar
+    private void guardarIdCriado(String corpo) {
+        try {
+            JsonNode id = mapper.readTree(corpo).get("id");
+            if (id != null && id.canConvertToLong()) {
+                idsCriados.add(id.asLong());
+            }
+        } catch (IOException e) {
+            // corpo fora do formato esperado: o DELETE simplesmente terá um id a menos
+        }
+    }
+}
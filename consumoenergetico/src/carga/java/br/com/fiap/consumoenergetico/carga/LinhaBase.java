@@ -0,0 +1,89 @@
+package br.com.fiap.consumoenergetico.carga;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// resultado de referência de um cenário, gravado com -Dcarga.linha-base.gravar=true.
+// Só é comparável com uma execução de mesma configuração (usuários, taxa e duração).
+public record LinhaBase(int usuarios, int taxa, long duracaoSegundos, List<ResumoEndpoint> endpoints) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, LinhaBase>> TIPO = new TypeReference<>() {};
+
+    public static Optional<LinhaBase> ler(File arquivo, String cenario) {
+        return Optional.ofNullable(lerTodas(arquivo).get(cenario));
+    }
+
+    // regrava o arquivo trocando só o cenário informado
+    public static void gravar(File arquivo, String cenario, LinhaBase linhaBase) {
+        Map<String, LinhaBase> todas = lerTodas(arquivo);
+        todas.put(cenario, linhaBase);
+        try {
+            File pasta = arquivo.getAbsoluteFile().getParentFile();
+            if (pasta != null) {
+                pasta.mkdirs();
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(arquivo, todas);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar a linha de base em " + arquivo, e);
+        }
+    }
+
+    private static Map<String, LinhaBase> lerTodas(File arquivo) {
+        if (!arquivo.isFile()) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return MAPPER.readValue(arquivo, TIPO);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Linha de base ilegível: " + arquivo, e);
+        }
+    }
+
+    public boolean mesmaConfiguracao(int usuarios, int taxa, long duracaoSegundos) {
+        return this.usuarios == usuarios && this.taxa == taxa && this.duracaoSegundos == duracaoSegundos;
+    }
+
+    // tolerancia é fração (0.2 = 20%); folgaMs evita acusar regressão em latências de poucos ms,
+    // onde o ruído do H2 em memória já passa da tolerância relativa
+    public List<String> regressoes(List<ResumoEndpoint> atual, double tolerancia, double folgaMs, double folgaErros) {
+        Map<String, ResumoEndpoint> base = new LinkedHashMap<>();
+        endpoints.forEach(e -> base.put(e.endpoint(), e));
+
+        List<String> regressoes = new ArrayList<>();
+        for (ResumoEndpoint agora : atual) {
+            ResumoEndpoint antes = base.get(agora.endpoint());
+            if (antes == null) {
+                continue;
+            }
+            latencia(regressoes, agora.endpoint(), "p95", agora.p95Ms(), antes.p95Ms(), tolerancia, folgaMs);
+            latencia(regressoes, agora.endpoint(), "p99", agora.p99Ms(), antes.p99Ms(), tolerancia, folgaMs);
+            if (agora.vazao() < antes.vazao() * (1 - tolerancia)) {
+                regressoes.add(String.format("%s: vazão %.1f req/s < %.1f req/s da linha de base",
+                        agora.endpoint(), agora.vazao(), antes.vazao()));
+            }
+            if (agora.taxaErro() > antes.taxaErro() + folgaErros) {
+                regressoes.add(String.format("%s: erros %.2f%% > %.2f%% da linha de base",
+                        agora.endpoint(), agora.taxaErro() * 100, antes.taxaErro() * 100));
+            }
+        }
+        return regressoes;
+    }
+
+    private static void latencia(List<String> regressoes, String endpoint, String nome,
+                                 double agora, double antes, double tolerancia, double folgaMs) {
+        if (agora > antes * (1 + tolerancia) + folgaMs) {
+            regressoes.add(String.format("%s: %s %.2f ms > %.2f ms da linha de base (+%.0f%%)",
+                    endpoint, nome, agora, antes, (agora / Math.max(antes, 0.001) - 1) * 100));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.consumoenergetico.carga;
+
+// uma linha da tabela de tráfego: método, caminho (com {id} opcional), payload, peso no sorteio e status esperado
+public record OperacaoCarga(String metodo, String endpoint, String payload, int peso, int status) {
+
+    // o payload entra no nome para separar, por exemplo, o POST válido do inválido no mesmo caminho
+    public String nome() {
+        return payload == null ? metodo + " " + endpoint : metodo + " " + endpoint + " " + payload;
+    }
+
+    // PUT leva o id (e a versão) no corpo (consumo-update.json); GET e DELETE, no caminho
+    boolean precisaDeId() {
+        return endpoint.contains("{id}") || "PUT".equals(metodo);
+    }
+
+    // DELETE consome um id criado durante a carga, para não remover os ids que o GET e o PUT usam
+    boolean consomeId() {
+        return "DELETE".equals(metodo);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.fiap.consumoenergetico.carga;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// amostras de uma execução, por endpoint, na ordem da tabela de tráfego
+public class ResultadoCarga {
+
+    private final Map<String, Amostras> porEndpoint = new LinkedHashMap<>();
+    private final long inicio;
+    private long fim;
+
+    ResultadoCarga(List<OperacaoCarga> operacoes, long inicio) {
+        for (OperacaoCarga operacao : operacoes) {
+            porEndpoint.putIfAbsent(operacao.nome(), new Amostras());
+        }
+        this.inicio = inicio;
+    }
+
+    void encerrar(long fim) {
+        this.fim = fim;
+    }
+
+    Amostras amostras(OperacaoCarga operacao) {
+        return porEndpoint.get(operacao.nome());
+    }
+
+    public List<ResumoEndpoint> resumir() {
+        double segundos = (fim - inicio) / 1e9;
+        List<ResumoEndpoint> resumo = new ArrayList<>();
+        porEndpoint.forEach((endpoint, amostras) -> resumo.add(amostras.resumir(endpoint, segundos)));
+        return resumo;
+    }
+
+    // p95 por endpoint no início e no fim do teste (cada janela com a fração indicada da duração)
+    public Map<String, double[]> p95InicioEFim(double fracao, int minimoAmostras) {
+        long janela = (long) ((fim - inicio) * fracao);
+        Map<String, double[]> p95 = new LinkedHashMap<>();
+        porEndpoint.forEach((endpoint, amostras) -> p95.put(endpoint, new double[]{
+                amostras.p95Janela(inicio, inicio + janela, minimoAmostras),
+                amostras.p95Janela(fim - janela, Long.MAX_VALUE, minimoAmostras)}));
+        return p95;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.fiap.consumoenergetico.carga;
+
+import java.util.Map;
+
+// taxaErro é fração (0.01 = 1%); latências em ms
+public record ResumoEndpoint(String endpoint,
+                             long requisicoes,
+                             long erros,
+                             double taxaErro,
+                             double vazao,
+                             double p50Ms,
+                             double p95Ms,
+                             double p99Ms,
+                             double maxMs,
+                             Map<String, Long> motivosErro) {
+}
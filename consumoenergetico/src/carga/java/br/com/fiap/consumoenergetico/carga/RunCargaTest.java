@@ -0,0 +1,23 @@
+package br.com.fiap.consumoenergetico.carga;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+
+// suíte de carga: só roda com -Pcarga (as tags vêm de -Dcarga.tags, padrão "@carga and not @soak")
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("carga")
+@ConfigurationParameter(
+        key = GLUE_PROPERTY_NAME,
+        value = "br.com.fiap.consumoenergetico.carga"
+)
+@ConfigurationParameter(
+        key = PLUGIN_PROPERTY_NAME,
+        value = "pretty, html:target/carga/cucumber-carga.html, json:target/carga/cucumber-carga.json"
+)
+public class RunCargaTest { }
@@ -0,0 +1,37 @@
+# language: pt
+@carga
+Funcionalidade: Carga concorrente na API de consumo
+  Como time responsável pela API
+  Quero medir vazão, latência e erros sob tráfego misto
+  Para barrar no build regressões de desempenho
+
+  # status é o esperado para a operação; qualquer outro conta como erro (inclusive 409 entre PUTs concorrentes)
+  Contexto:
+    Dado que existem 200 consumos cadastrados via "consumo-valido.json"
+
+  Cenário: Tráfego misto de leitura e escrita
+    Quando eu disparo tráfego misto com 32 usuários a 200 requisições por segundo durante 30 segundos:
+      | metodo | endpoint                | payload                             | peso | status |
+      | POST   | /consumo                | consumo-valido.json                 | 20   | 201    |
+      | POST   | /consumo/lote           | consumo-lote.json                   | 3    | 200    |
+      | POST   | /consumo                | consumo-invalido-unidade-vazia.json | 2    | 400    |
+      | GET    | /consumo/{id}           |                                     | 35   | 200    |
+      | GET    | /consumo?page=0&size=20 |                                     | 20   | 200    |
+      | PUT    | /consumo                | consumo-update.json                 | 10   | 200    |
+      | DELETE | /consumo/{id}           |                                     | 10   | 204    |
+    Então a taxa de erros de cada endpoint deve ficar abaixo de 1%
+    E nenhum endpoint deve regredir mais de 20% em relação à linha de base
+
+  # -Pcarga -Dcarga.tags=@soak
+  @soak
+  Cenário: Tráfego misto sustentado
+    Quando eu disparo tráfego misto com 16 usuários a 100 requisições por segundo durante 30 minutos:
+      | metodo | endpoint                | payload             | peso | status |
+      | POST   | /consumo                | consumo-valido.json | 20   | 201    |
+      | GET    | /consumo/{id}           |                     | 40   | 200    |
+      | GET    | /consumo?page=0&size=20 |                     | 20   | 200    |
+      | PUT    | /consumo                | consumo-update.json | 10   | 200    |
+      | DELETE | /consumo/{id}           |                     | 10   | 204    |
+    Então a taxa de erros de cada endpoint deve ficar abaixo de 1%
+    E o p95 do fim do teste não deve passar de 150% do p95 do início
+    E nenhum endpoint deve regredir mais de 20% em relação à linha de base
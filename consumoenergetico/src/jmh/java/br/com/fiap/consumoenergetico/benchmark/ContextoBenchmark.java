@@ -0,0 +1,52 @@
+package br.com.fiap.consumoenergetico.benchmark;
+
+import br.com.fiap.consumoenergetico.ConsumoenergeticoApplication;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// sobe a aplicação no perfil "bench" (H2 em memória) e gera massa de dados para os benchmarks
+final class ContextoBenchmark {
+
+    static final String[] UNIDADES = {"kWh", "MWh", "bloco-a", "bloco-b", "bloco-c"};
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String... perfisAdicionais) {
+        return iniciarComArgumentos(perfisAdicionais);
+    }
+
+    // argumentos no formato da linha de comando (--propriedade=valor), acima dos arquivos de perfil
+    static ConfigurableApplicationContext iniciarComArgumentos(String[] perfisAdicionais, String... argumentos) {
+        return new SpringApplicationBuilder(ConsumoenergeticoApplication.class)
+                .profiles("bench")
+                .profiles(perfisAdicionais)
+                .run(argumentos);
+    }
+
+    static List<ConsumoCadastroDto> leituras(int quantidade, long semente) {
+        List<ConsumoCadastroDto> leituras = new ArrayList<>(quantidade);
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < quantidade; i++) {
+            long n = semente + i;
+            leituras.add(new ConsumoCadastroDto(
+                    (double) (n % 1000) / 10,
+                    inicio.plusDays(n % 730),
+                    UNIDADES[(int) (n % UNIDADES.length)]));
+        }
+        return leituras;
+    }
+
+    static void popular(ConsumoService consumoService, int quantidade) {
+        List<ConsumoCadastroDto> leituras = leituras(quantidade, 0);
+        for (int i = 0; i < quantidade; i += 1000) {
+            consumoService.gravarLote(leituras.subList(i, Math.min(i + 1000, quantidade)));
+        }
+    }
+}
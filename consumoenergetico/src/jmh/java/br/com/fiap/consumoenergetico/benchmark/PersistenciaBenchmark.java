@@ -0,0 +1,98 @@
+package br.com.fiap.consumoenergetico.benchmark;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteResultadoDto;
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import br.com.fiap.consumoenergetico.repo.ConsumoRepo;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// gravação unitária x em lote, listagem paginada em vários offsets (entidade x projeção) e agregações
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenciaBenchmark {
+
+    private static final int LEITURAS_INICIAIS = 20_000;
+    private static final int TAMANHO_LOTE = 100;
+
+    // parâmetros em estados separados: cada um só multiplica o benchmark que o usa
+    @State(Scope.Benchmark)
+    public static class Paginacao {
+        @Param({"0", "100", "900"})
+        public int pagina;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Agrupamento {
+        @Param({"unidade", "dia", "mes"})
+        public String por;
+    }
+
+    private ConfigurableApplicationContext contexto;
+    private ConsumoService consumoService;
+    private ConsumoRepo consumoRepo;
+    private long sequencia = LEITURAS_INICIAIS;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        consumoService = contexto.getBean(ConsumoService.class);
+        consumoRepo = contexto.getBean(ConsumoRepo.class);
+        ContextoBenchmark.popular(consumoService, LEITURAS_INICIAIS);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public void gravarUnitario(Blackhole bh) {
+        for (ConsumoCadastroDto leitura : ContextoBenchmark.leituras(TAMANHO_LOTE, sequencia)) {
+            ConsumoEnergetico entity = new ConsumoEnergetico();
+            entity.setQtdConsumo(leitura.qtdConsumo());
+            entity.setData(leitura.data());
+            entity.setUnidade(leitura.unidade());
+            bh.consume(consumoService.gravar(entity));
+        }
+        sequencia += TAMANHO_LOTE;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public ConsumoLoteResultadoDto gravarEmLote() {
+        List<ConsumoCadastroDto> leituras = ContextoBenchmark.leituras(TAMANHO_LOTE, sequencia);
+        sequencia += TAMANHO_LOTE;
+        return consumoService.gravarLote(leituras);
+    }
+
+    @Benchmark
+    public Page<ConsumoExibicaoDto> listarConsumos(Paginacao paginacao) {
+        return consumoService.listarConsumos(PageRequest.of(paginacao.pagina, 20));
+    }
+
+    // caminho antigo da listagem (entidades gerenciadas + conversão): referência para o gc.alloc.rate.norm
+    @Benchmark
+    public Page<ConsumoExibicaoDto> listarConsumosEntidades(Paginacao paginacao) {
+        return consumoRepo.findAll(PageRequest.of(paginacao.pagina, 20)).map(ConsumoExibicaoDto::new);
+    }
+
+    @Benchmark
+    public List<ConsumoAgregadoDto> agregar(Agrupamento agrupamento) {
+        return consumoService.agregar(agrupamento.por, null, null);
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.fiap.consumoenergetico.benchmark;
+
+import br.com.fiap.consumoenergetico.colunar.EscritorColunar;
+import br.com.fiap.consumoenergetico.colunar.FormatoColunar;
+import br.com.fiap.consumoenergetico.colunar.LeitorColunar;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// construção do ConsumoExibicaoDto, serialização Jackson e formato colunar (.cec), sem banco
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    private ObjectMapper mapper;
+    private ConsumoEnergetico entity;
+    private ConsumoExibicaoDto dto;
+    private List<ConsumoExibicaoDto> pagina;
+    private List<ConsumoExibicaoDto> bloco;
+    private byte[] blocoColunar;
+    private byte[] blocoNdjson;
+
+    @Setup
+    public void iniciar() {
+        // mesma configuração de datas do ObjectMapper do Spring Boot (ISO-8601, não timestamp)
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        entity = new ConsumoEnergetico();
+        entity.setId(42L);
+        entity.setQtdConsumo(123.45);
+        entity.setData(LocalDate.of(2025, 10, 1));
+        entity.setUnidade("kWh");
+        entity.setVersao(0L);
+        dto = new ConsumoExibicaoDto(entity);
+
+        pagina = new ArrayList<>(20);
+        for (int i = 0; i < 20; i++) {
+            pagina.add(dto);
+        }
+
+        // um bloco do formato colunar: poucas unidades, datas próximas
+        String[] unidades = {"kWh", "MWh", "Wh"};
+        bloco = new ArrayList<>(FormatoColunar.LINHAS_POR_BLOCO);
+        for (int i = 0; i < FormatoColunar.LINHAS_POR_BLOCO; i++) {
+            bloco.add(new ConsumoExibicaoDto((long) i, i * 0.25, LocalDate.of(2025, 1, 1).plusDays(i / 16),
+                    unidades[i % unidades.length], 0L));
+        }
+        try {
+            blocoColunar = codificarColunar();
+            blocoNdjson = serializarBlocoNdjson();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        System.out.printf("%n%d leituras: colunar %d bytes, ndjson %d bytes%n",
+                bloco.size(), blocoColunar.length, blocoNdjson.length);
+    }
+
+    @Benchmark
+    public ConsumoExibicaoDto construirDto() {
+        return new ConsumoExibicaoDto(entity);
+    }
+
+    @Benchmark
+    public String serializarDto() throws JsonProcessingException {
+        return mapper.writeValueAsString(dto);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] serializarBlocoNdjson() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(bloco.size() * 80);
+        for (ConsumoExibicaoDto consumo : bloco) {
+            mapper.writeValue(saida, consumo);
+            saida.write('\n');
+        }
+        return saida.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] codificarColunar() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(bloco.size() * 10);
+        try (EscritorColunar escritor = new EscritorColunar(Channels.newChannel(saida))) {
+            for (ConsumoExibicaoDto consumo : bloco) {
+                escritor.escrever(consumo.data(), consumo.unidade(), consumo.qtdConsumo());
+            }
+            escritor.finalizar();
+        }
+        return saida.toByteArray();
+    }
+
+    @Benchmark
+    public List<ConsumoCadastroDto> decodificarColunar() {
+        List<ConsumoCadastroDto> destino = new ArrayList<>(bloco.size());
+        LeitorColunar leitor = new LeitorColunar(ByteBuffer.wrap(blocoColunar));
+        while (leitor.proximoBloco(destino)) {
+            // lê até o rodapé
+        }
+        return destino;
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.fiap.consumoenergetico.benchmark;
+
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// carga HTTP concorrente (256 clientes) contra o Tomcat com threads de plataforma x threads virtuais.
+// Mode.SampleTime gera p50/p90/p99; o throughput sai de ops/s = clientes / tempo médio.
+// Resposta fora de 2xx ou falha de I/O entra no contador "erros". No modo "virtual" o limitador de admissão
+// espera até 60 s por uma permissão em vez dos 500 ms do perfil: com os 503 rápidos dos 500 ms na amostra,
+// o p99 e a vazão medidos seriam os das recusas, não os das requisições atendidas.
+// O modo "virtual" só tem efeito em Java 21: ./mvnw -Pjava21,benchmark test-compile exec:exec -Djmh.incluir=ThreadsVirtuais
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(1)
+public class ThreadsVirtuaisBenchmark {
+
+    @Param({"plataforma", "virtual"})
+    public String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private ExecutorService executorCliente;
+    private HttpClient cliente;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = "virtual".equals(modo)
+                ? ContextoBenchmark.iniciarComArgumentos(new String[]{"virtual"}, "--consumo.admissao.espera-ms=60000")
+                : ContextoBenchmark.iniciar();
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        baseUrl = "http://localhost:" + porta + "/api";
+        executorCliente = Executors.newFixedThreadPool(32);
+        cliente = HttpClient.newBuilder()
+                .executor(executorCliente)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ContextoBenchmark.popular(contexto.getBean(ConsumoService.class), 5_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        executorCliente.shutdownNow();
+        contexto.close();
+    }
+
+    // contadores por thread do JMH, somados no relatório como métricas secundárias de cada benchmark
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Respostas {
+        public long erros;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            erros = 0;
+        }
+    }
+
+    @Benchmark
+    public int listarPagina(Respostas respostas) throws InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/consumo?page=10&size=20")).GET().build(), respostas);
+    }
+
+    @Benchmark
+    public int gravar(Respostas respostas) throws InterruptedException {
+        String corpo = "{\"qtdConsumo\": 123.45, \"data\": \"2025-10-01\", \"unidade\": \"kWh\"}";
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/consumo"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build(), respostas);
+    }
+
+    private int enviar(HttpRequest requisicao, Respostas respostas) throws InterruptedException {
+        int status;
+        try {
+            status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        }
+        if (status < 200 || status >= 300) {
+            respostas.erros++;
+        }
+        return status;
+    }
+}
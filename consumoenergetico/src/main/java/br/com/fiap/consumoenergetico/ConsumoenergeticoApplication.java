@@ -2,8 +2,19 @@ package br.com.fiap.consumoenergetico;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// o R2DBC só entra no classpath com o perfil Maven "reativo" e pertence à ConsumoReativoApplication;
+// aqui ele criaria um segundo gerenciador de transações ao lado do JPA
+@SpringBootApplication(excludeName = {
+		"org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+		"org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+		"org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration",
+		"org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration"
+})
+@EnableCaching
+@EnableScheduling
 public class ConsumoenergeticoApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,68 @@
+package br.com.fiap.consumoenergetico.admissao;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// com threads virtuais o Tomcat deixa de limitar a concorrência (não há mais pool de 200 threads);
+// este filtro admite no máximo N requisições da API ao mesmo tempo (N ~ tamanho do pool do Hikari)
+// e devolve 503 em vez de deixar milhares de threads disputando conexões
+@Component
+@ConditionalOnProperty(name = "consumo.admissao.habilitada", havingValue = "true")
+public class LimitadorAdmissaoFilter extends OncePerRequestFilter {
+
+    private final Semaphore permissoes;
+    private final long esperaMs;
+
+    public LimitadorAdmissaoFilter(@Value("${consumo.admissao.permissoes:${spring.datasource.hikari.maximum-pool-size:10}}") int permissoes,
+                                   @Value("${consumo.admissao.espera-ms:500}") long esperaMs,
+                                   MeterRegistry registry) {
+        this.permissoes = new Semaphore(permissoes, true);
+        this.esperaMs = esperaMs;
+        Gauge.builder("consumo.admissao.aguardando", this.permissoes, Semaphore::getQueueLength)
+                .description("Requisições aguardando admissão")
+                .register(registry);
+        Gauge.builder("consumo.admissao.disponiveis", this.permissoes, Semaphore::availablePermits)
+                .description("Permissões de admissão livres")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitida;
+        try {
+            admitida = permissoes.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitida = false;
+        }
+        if (!admitida) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, tente novamente");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permissoes.release();
+        }
+    }
+}
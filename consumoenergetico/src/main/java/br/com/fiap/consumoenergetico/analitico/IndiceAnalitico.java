@@ -0,0 +1,139 @@
+package br.com.fiap.consumoenergetico.analitico;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+import br.com.fiap.consumoenergetico.dto.DiaConsumoDto;
+import br.com.fiap.consumoenergetico.dto.IndiceMemoriaDto;
+import br.com.fiap.consumoenergetico.dto.SomaPeriodoDto;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteracaoEmMassaEvento;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteradoEvento;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// índice analítico em memória: uma SerieConsumo (arrays primitivos por dia) por unidade,
+// carregado na subida a partir de TBL_CONSUMO e mantido pelos eventos de escrita do ConsumoService.
+// Consistência eventual: escritas confirmadas durante uma recarga podem ficar de fora até a próxima
+@Component
+@ConditionalOnProperty(name = "consumo.analitico.habilitado", havingValue = "true")
+public class IndiceAnalitico implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceAnalitico.class);
+
+    // coberto pelo IDX_CONSUMO_UNIDADE_DATA_QTD: só o índice é lido
+    private static final String CARREGAR = """
+            SELECT UNIDADE, DATA_CONSUMO, SUM(QTD_CONSUMO), COUNT(*)
+              FROM TBL_CONSUMO
+             GROUP BY UNIDADE, DATA_CONSUMO
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Map<String, SerieConsumo> series = new ConcurrentHashMap<>();
+    private volatile LocalDateTime carregadoEm;
+
+    public IndiceAnalitico(DataSource dataSource, MeterRegistry registro) {
+        // JdbcTemplate próprio para o fetch size da carga não valer para o resto da aplicação
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        Gauge.builder("consumo.analitico.bytes", this, indice -> indice.memoria().bytes())
+                .baseUnit("bytes")
+                .register(registro);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        carregar();
+    }
+
+    @EventListener
+    public void aoAlterarEmMassa(ConsumoAlteracaoEmMassaEvento evento) {
+        log.info("Recarregando índice analítico após alteração em massa ({})", evento.origem());
+        carregar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(ConsumoAlteradoEvento evento) {
+        aplicar(series, evento.anterior(), -1);
+        aplicar(series, evento.atual(), 1);
+    }
+
+    public synchronized void carregar() {
+        long inicio = System.currentTimeMillis();
+        Map<String, SerieConsumo> novas = new ConcurrentHashMap<>();
+        jdbcTemplate.query(CARREGAR, (RowCallbackHandler) linha ->
+                novas.computeIfAbsent(linha.getString(1), unidade -> new SerieConsumo())
+                        .somar((int) linha.getDate(2).toLocalDate().toEpochDay(), linha.getDouble(3), linha.getInt(4)));
+        series = novas;
+        carregadoEm = LocalDateTime.now();
+        IndiceMemoriaDto memoria = memoria();
+        log.info("Índice analítico carregado: {} unidades, {} dias, {} leituras, {} bytes em {} ms",
+                memoria.unidades(), memoria.dias(), memoria.leituras(), memoria.bytes(),
+                System.currentTimeMillis() - inicio);
+    }
+
+    // sem unidade, soma todas as séries (O(unidades · log dias))
+    public SomaPeriodoDto somar(String unidade, LocalDate de, LocalDate ate) {
+        if (de.isAfter(ate)) {
+            throw new ParametroInvalidoException("'de' não pode ser posterior a 'ate'");
+        }
+        int inicio = (int) de.toEpochDay();
+        int fim = (int) ate.toEpochDay();
+        double soma = 0;
+        long quantidade = 0;
+        for (Map.Entry<String, SerieConsumo> serie : series.entrySet()) {
+            if (unidade == null || unidade.equals(serie.getKey())) {
+                SerieConsumo.Total total = serie.getValue().somarPeriodo(inicio, fim);
+                soma += total.soma();
+                quantidade += total.quantidade();
+            }
+        }
+        return new SomaPeriodoDto(unidade, de, ate, soma, quantidade, quantidade == 0 ? null : soma / quantidade);
+    }
+
+    public List<DiaConsumoDto> maioresDias(String unidade, int limite) {
+        if (limite < 1 || limite > 1000) {
+            throw new ParametroInvalidoException("limite deve estar entre 1 e 1000");
+        }
+        SerieConsumo serie = series.get(unidade);
+        return serie == null ? List.of() : serie.maioresDias(limite);
+    }
+
+    public IndiceMemoriaDto memoria() {
+        long dias = 0;
+        long leituras = 0;
+        long bytes = 0;
+        Map<String, SerieConsumo> atuais = series;
+        for (SerieConsumo serie : atuais.values()) {
+            dias += serie.quantidadeDias();
+            leituras += serie.quantidadeLeituras();
+            bytes += serie.bytes();
+        }
+        Long porMilhao = leituras == 0 ? null : bytes * 1_000_000 / leituras;
+        return new IndiceMemoriaDto(atuais.size(), dias, leituras, bytes, porMilhao, carregadoEm);
+    }
+
+    private static void aplicar(Map<String, SerieConsumo> series, ConsumoEstadoDto estado, int sinal) {
+        if (estado == null || estado.unidade() == null || estado.data() == null || estado.qtdConsumo() == null) {
+            return;
+        }
+        series.computeIfAbsent(estado.unidade(), unidade -> new SerieConsumo())
+                .somar((int) estado.data().toEpochDay(), sinal * estado.qtdConsumo(), sinal);
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.fiap.consumoenergetico.analitico;
+
+import br.com.fiap.consumoenergetico.dto.DiaConsumoDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// série diária de uma unidade em arrays primitivos ordenados por dia (epoch day), com somas e contagens
+// também em árvores de Fenwick: leitura num dia existente ou num dia novo no fim (o caso comum) atualiza em
+// O(log n) e a soma de um período sai em O(log n). Só um dia novo no meio da série (leitura atrasada)
+// desloca os índices; aí as árvores são reconstruídas em O(n) na próxima consulta
+final class SerieConsumo {
+
+    // bytes por dia: dia (int) + soma (double) + contagem (int) + duas árvores (double, long)
+    static final int BYTES_POR_DIA = Integer.BYTES + Double.BYTES + Integer.BYTES + Double.BYTES + Long.BYTES;
+
+    private int[] dias = new int[16];
+    private double[] somas = new double[16];
+    private int[] contagens = new int[16];
+    private int tamanho;
+
+    // árvores de Fenwick indexadas a partir de 1: arvore[j] cobre os dias [j - (j & -j), j)
+    private double[] arvoreSomas = new double[17];
+    private long[] arvoreContagens = new long[17];
+    private boolean arvoreValida = true;
+
+    synchronized void somar(int dia, double valor, int contagem) {
+        int i = Arrays.binarySearch(dias, 0, tamanho, dia);
+        if (i < 0) {
+            i = -i - 1;
+            boolean noFim = i == tamanho;
+            inserir(i, dia);
+            if (noFim && arvoreValida) {
+                anexarNaArvore(i);
+            } else {
+                arvoreValida = false;
+            }
+        }
+        somas[i] += valor;
+        contagens[i] += contagem;
+        if (arvoreValida) {
+            for (int j = i + 1; j <= tamanho; j += j & -j) {
+                arvoreSomas[j] += valor;
+                arvoreContagens[j] += contagem;
+            }
+        }
+    }
+
+    record Total(double soma, long quantidade) {
+    }
+
+    // soma e quantidade de leituras no intervalo fechado [de, ate], em O(log n)
+    synchronized Total somarPeriodo(int de, int ate) {
+        reconstruirArvore();
+        int inicio = primeiroMaiorOuIgual(de);
+        int fim = primeiroMaiorOuIgual(ate + 1);
+        if (fim <= inicio) {
+            return new Total(0, 0);
+        }
+        return new Total(prefixoSoma(fim) - prefixoSoma(inicio), prefixoContagem(fim) - prefixoContagem(inicio));
+    }
+
+    // os k dias de maior soma, em ordem decrescente; k é pequeno, então a inserção ordenada basta
+    synchronized List<DiaConsumoDto> maioresDias(int k) {
+        int[] indices = new int[Math.min(k, tamanho)];
+        if (indices.length == 0) {
+            return List.of();
+        }
+        int preenchidos = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (contagens[i] == 0) {
+                continue;
+            }
+            if (preenchidos == indices.length && somas[indices[preenchidos - 1]] >= somas[i]) {
+                continue;
+            }
+            int pos = preenchidos < indices.length ? preenchidos++ : preenchidos - 1;
+            while (pos > 0 && somas[indices[pos - 1]] < somas[i]) {
+                indices[pos] = indices[pos - 1];
+                pos--;
+            }
+            indices[pos] = i;
+        }
+        List<DiaConsumoDto> resultado = new ArrayList<>(preenchidos);
+        for (int j = 0; j < preenchidos; j++) {
+            int i = indices[j];
+            resultado.add(new DiaConsumoDto(LocalDate.ofEpochDay(dias[i]), somas[i], contagens[i]));
+        }
+        return resultado;
+    }
+
+    synchronized int quantidadeDias() {
+        return tamanho;
+    }
+
+    synchronized long quantidadeLeituras() {
+        reconstruirArvore();
+        return prefixoContagem(tamanho);
+    }
+
+    synchronized long bytes() {
+        return (long) dias.length * BYTES_POR_DIA + 2L * Double.BYTES;
+    }
+
+    // soma dos dias [0, n)
+    private double prefixoSoma(int n) {
+        double soma = 0;
+        for (int j = n; j > 0; j -= j & -j) {
+            soma += arvoreSomas[j];
+        }
+        return soma;
+    }
+
+    private long prefixoContagem(int n) {
+        long contagem = 0;
+        for (int j = n; j > 0; j -= j & -j) {
+            contagem += arvoreContagens[j];
+        }
+        return contagem;
+    }
+
+    // dia recém-anexado no índice i (ainda zerado): o nó i + 1 cobre dias anteriores já na árvore
+    private void anexarNaArvore(int i) {
+        int j = i + 1;
+        int inicio = j - (j & -j);
+        arvoreSomas[j] = prefixoSoma(i) - prefixoSoma(inicio);
+        arvoreContagens[j] = prefixoContagem(i) - prefixoContagem(inicio);
+    }
+
+    // construção em O(n): cada nó repassa o próprio total ao nó pai
+    private void reconstruirArvore() {
+        if (arvoreValida) {
+            return;
+        }
+        for (int j = 1; j <= tamanho; j++) {
+            arvoreSomas[j] = somas[j - 1];
+            arvoreContagens[j] = contagens[j - 1];
+        }
+        for (int j = 1; j <= tamanho; j++) {
+            int pai = j + (j & -j);
+            if (pai <= tamanho) {
+                arvoreSomas[pai] += arvoreSomas[j];
+                arvoreContagens[pai] += arvoreContagens[j];
+            }
+        }
+        arvoreValida = true;
+    }
+
+    private int primeiroMaiorOuIgual(int dia) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (dias[meio] < dia) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private void inserir(int i, int dia) {
+        if (tamanho == dias.length) {
+            int capacidade = dias.length * 2;
+            dias = Arrays.copyOf(dias, capacidade);
+            somas = Arrays.copyOf(somas, capacidade);
+            contagens = Arrays.copyOf(contagens, capacidade);
+            arvoreSomas = Arrays.copyOf(arvoreSomas, capacidade + 1);
+            arvoreContagens = Arrays.copyOf(arvoreContagens, capacidade + 1);
+        }
+        System.arraycopy(dias, i, dias, i + 1, tamanho - i);
+        System.arraycopy(somas, i, somas, i + 1, tamanho - i);
+        System.arraycopy(contagens, i, contagens, i + 1, tamanho - i);
+        dias[i] = dia;
+        somas[i] = 0;
+        contagens[i] = 0;
+        tamanho++;
+    }
+}
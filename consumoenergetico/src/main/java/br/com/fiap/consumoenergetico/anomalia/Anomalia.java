@@ -0,0 +1,5 @@
+package br.com.fiap.consumoenergetico.anomalia;
+
+// motivo: NEGATIVO, DUPLICADO ou FORA_DO_PADRAO
+public record Anomalia(String motivo, String detalhe) {
+}
@@ -0,0 +1,36 @@
+package br.com.fiap.consumoenergetico.anomalia;
+
+// média e variância com peso exponencial (EWMA) das leituras aceitas de uma unidade: memória O(1)
+public final class EstatisticaUnidade {
+
+    private final double alfa;
+    private long amostras;
+    private double media;
+    private double variancia;
+
+    public EstatisticaUnidade(double alfa) {
+        this.alfa = alfa;
+    }
+
+    // distância em desvios-padrão; NaN enquanto não houver amostras suficientes ou variância
+    public synchronized double sigmas(double valor, long minimoAmostras) {
+        if (amostras < minimoAmostras || variancia <= 0) {
+            return Double.NaN;
+        }
+        return Math.abs(valor - media) / Math.sqrt(variancia);
+    }
+
+    public synchronized void registrar(double valor) {
+        if (amostras++ == 0) {
+            media = valor;
+            return;
+        }
+        double diferenca = valor - media;
+        media += alfa * diferenca;
+        variancia = (1 - alfa) * (variancia + alfa * diferenca * diferenca);
+    }
+
+    public synchronized double media() {
+        return media;
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.fiap.consumoenergetico.aovivo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAoVivoDto;
+import br.com.fiap.consumoenergetico.dto.TotalUnidadeDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// buffer limitado de um cliente SSE. Quem publica só enfileira (nunca escreve no socket);
+// o envio roda em uma tarefa do executor do feed, então um cliente lento só atrasa a si mesmo
+// e, se travar um envio além do limite, é derrubado (ver TransmissorAoVivo.verificarEnvios)
+class AssinanteAoVivo {
+
+    private final SseEmitter emissor;
+    private final PoliticaBuffer politica;
+    private final int capacidade;
+    private final Executor executor;
+
+    // chave: id da leitura (COALESCER) ou sequencial (DESCARTAR)
+    private final LinkedHashMap<Long, ConsumoAoVivoDto> eventos = new LinkedHashMap<>();
+    private final LinkedHashMap<String, TotalUnidadeDto> totais = new LinkedHashMap<>();
+    private long sequencia;
+    private long descartadosPendentes;
+    private boolean pulsoPendente;
+
+    private final AtomicBoolean agendado = new AtomicBoolean(false);
+    private volatile boolean encerrado;
+
+    // envio em curso (protegidos por this): a thread presa no socket e desde quando (nanoTime)
+    private Thread enviando;
+    private long envioDesde;
+    private volatile boolean derrubado;
+
+    AssinanteAoVivo(SseEmitter emissor, PoliticaBuffer politica, int capacidade, Executor executor) {
+        this.emissor = emissor;
+        this.politica = politica;
+        this.capacidade = capacidade;
+        this.executor = executor;
+    }
+
+    SseEmitter emissor() {
+        return emissor;
+    }
+
+    boolean encerrado() {
+        return encerrado;
+    }
+
+    void encerrar() {
+        encerrado = true;
+    }
+
+    // devolve quantos eventos foram descartados para caber este
+    int enfileirar(ConsumoAoVivoDto evento) {
+        int descartados = 0;
+        synchronized (this) {
+            Long chave = politica == PoliticaBuffer.COALESCER ? evento.consumo().id() : sequencia++;
+            if (eventos.put(chave, evento) == null && eventos.size() > capacidade) {
+                Iterator<Long> maisAntigo = eventos.keySet().iterator();
+                maisAntigo.next();
+                maisAntigo.remove();
+                descartados = 1;
+                descartadosPendentes++;
+            }
+        }
+        agendar();
+        return descartados;
+    }
+
+    void enfileirar(TotalUnidadeDto total) {
+        synchronized (this) {
+            totais.put(total.unidade(), total);
+        }
+        agendar();
+    }
+
+    void pulsar() {
+        synchronized (this) {
+            pulsoPendente = true;
+        }
+        agendar();
+    }
+
+    // derruba o assinante com envio travado há mais que o limite. A thread do envio é interrompida e ela
+    // mesma encerra o emissor quando o socket a liberar: completeWithError aqui esperaria pelo mesmo envio
+    synchronized boolean derrubarSeTravado(long agora, long limiteNanos) {
+        if (enviando == null || agora - envioDesde < limiteNanos) {
+            return false;
+        }
+        encerrado = true;
+        derrubado = true;
+        enviando.interrupt();
+        return true;
+    }
+
+    private void agendar() {
+        if (!encerrado && agendado.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drenar);
+            } catch (RejectedExecutionException e) {
+                // executor do feed saturado: o assinante sai em vez de acumular tarefas
+                encerrado = true;
+                emissor.completeWithError(e);
+            }
+        }
+    }
+
+    private void drenar() {
+        try {
+            while (!encerrado) {
+                List<SseEmitter.SseEventBuilder> lote = retirarPendentes();
+                if (lote.isEmpty()) {
+                    agendado.set(false);
+                    // algo pode ter chegado entre o retirar e o set(false)
+                    if (!possuiPendentes() || !agendado.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                for (SseEmitter.SseEventBuilder evento : lote) {
+                    enviar(evento);
+                }
+            }
+            if (derrubado) {
+                emissor.completeWithError(new TimeoutException("Envio ao assinante travado além do limite"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // cliente desconectou ou o emissor já terminou
+            encerrado = true;
+            emissor.completeWithError(e);
+        }
+    }
+
+    private void enviar(SseEmitter.SseEventBuilder evento) throws IOException {
+        synchronized (this) {
+            enviando = Thread.currentThread();
+            envioDesde = System.nanoTime();
+        }
+        try {
+            emissor.send(evento);
+        } finally {
+            synchronized (this) {
+                enviando = null;
+                // interrupção que chegou com o envio já concluído não vaza para a próxima tarefa do executor
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private synchronized boolean possuiPendentes() {
+        return !eventos.isEmpty() || !totais.isEmpty() || pulsoPendente || descartadosPendentes > 0;
+    }
+
+    private synchronized List<SseEmitter.SseEventBuilder> retirarPendentes() {
+        List<SseEmitter.SseEventBuilder> lote = new ArrayList<>(eventos.size() + totais.size() + 2);
+        if (descartadosPendentes > 0) {
+            lote.add(SseEmitter.event().name("descartados").data(descartadosPendentes));
+            descartadosPendentes = 0;
+        }
+        for (ConsumoAoVivoDto evento : eventos.values()) {
+            lote.add(SseEmitter.event().name("consumo").data(evento));
+        }
+        eventos.clear();
+        for (TotalUnidadeDto total : totais.values()) {
+            lote.add(SseEmitter.event().name("total").data(total));
+        }
+        totais.clear();
+        if (pulsoPendente) {
+            lote.add(SseEmitter.event().comment("pulso"));
+            pulsoPendente = false;
+        }
+        return lote;
+    }
+}
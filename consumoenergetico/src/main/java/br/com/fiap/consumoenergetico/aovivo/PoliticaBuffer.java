@@ -0,0 +1,19 @@
+package br.com.fiap.consumoenergetico.aovivo;
+
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+
+// o que fazer quando o buffer de um assinante lento enche; totais por unidade são sempre coalescidos
+public enum PoliticaBuffer {
+    // descarta o evento mais antigo
+    DESCARTAR,
+    // substitui o evento pendente do mesmo id; se o id for novo, descarta o mais antigo
+    COALESCER;
+
+    public static PoliticaBuffer de(String valor) {
+        try {
+            return valueOf(valor.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ParametroInvalidoException("Política de buffer inválida: " + valor);
+        }
+    }
+}
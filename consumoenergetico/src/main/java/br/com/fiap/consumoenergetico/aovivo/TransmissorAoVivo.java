@@ -0,0 +1,171 @@
+package br.com.fiap.consumoenergetico.aovivo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoAoVivoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.dto.TotalUnidadeDto;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteracaoEmMassaEvento;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteradoEvento;
+import br.com.fiap.consumoenergetico.service.ConsumoDiarioService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// feed ao vivo (/api/consumo/ao-vivo): repassa as escritas confirmadas do ConsumoService
+// e mantém o total corrente por unidade, iniciado a partir do consolidado diário. Os envios rodam num
+// executor próprio e limitado (consumo.aovivo.threads / consumo.aovivo.fila): clientes lentos não ocupam
+// o applicationTaskExecutor dos jobs de manutenção
+@Component
+@ConditionalOnProperty(name = "consumo.aovivo.habilitado", havingValue = "true")
+public class TransmissorAoVivo implements ApplicationRunner {
+
+    private static final LocalDate INICIO = LocalDate.of(1900, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(9999, 12, 31);
+
+    private final ConsumoDiarioService consumoDiarioService;
+    private final ThreadPoolExecutor envios;
+    private final Counter descartados;
+    private final Counter derrubados;
+
+    private final Set<AssinanteAoVivo> assinantes = ConcurrentHashMap.newKeySet();
+    private final Map<String, TotalUnidadeDto> totais = new ConcurrentHashMap<>();
+
+    @Value("${consumo.aovivo.capacidade:256}")
+    private int capacidade;
+
+    @Value("${consumo.aovivo.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${consumo.aovivo.envio-timeout-ms:10000}")
+    private long envioTimeoutMs;
+
+    public TransmissorAoVivo(ConsumoDiarioService consumoDiarioService,
+                             @Value("${consumo.aovivo.threads:4}") int threads,
+                             @Value("${consumo.aovivo.fila:1024}") int fila,
+                             MeterRegistry registro) {
+        this.consumoDiarioService = consumoDiarioService;
+        // cada assinante tem no máximo uma tarefa de envio pendente; fila cheia derruba o assinante novo
+        this.envios = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), new CustomizableThreadFactory("aovivo-"));
+        Gauge.builder("consumo.aovivo.assinantes", assinantes, Set::size).register(registro);
+        this.descartados = Counter.builder("consumo.aovivo.descartados")
+                .description("Eventos descartados por buffer cheio de assinante lento")
+                .register(registro);
+        this.derrubados = Counter.builder("consumo.aovivo.derrubados")
+                .description("Assinantes derrubados por envio travado além de consumo.aovivo.envio-timeout-ms")
+                .register(registro);
+    }
+
+    @PreDestroy
+    public void fechar() {
+        envios.shutdownNow();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        carregarTotais();
+    }
+
+    public SseEmitter assinar(PoliticaBuffer politica) {
+        SseEmitter emissor = new SseEmitter(timeoutMs);
+        AssinanteAoVivo assinante = new AssinanteAoVivo(emissor, politica, capacidade, envios);
+        Runnable remover = () -> {
+            assinante.encerrar();
+            assinantes.remove(assinante);
+        };
+        emissor.onCompletion(remover);
+        emissor.onTimeout(remover);
+        emissor.onError(erro -> remover.run());
+
+        assinantes.add(assinante);
+        totais.values().forEach(assinante::enfileirar);
+        return emissor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(ConsumoAlteradoEvento evento) {
+        ConsumoEstadoDto anterior = evento.anterior();
+        ConsumoEstadoDto atual = evento.atual();
+        String tipo = anterior == null ? "INCLUIDO" : atual == null ? "REMOVIDO" : "ALTERADO";
+        ConsumoEstadoDto exibido = atual != null ? atual : anterior;
+        ConsumoAoVivoDto mensagem = new ConsumoAoVivoDto(tipo, new ConsumoExibicaoDto(exibido.id(),
+                exibido.qtdConsumo(), exibido.data(), exibido.unidade(), exibido.versao()));
+
+        TotalUnidadeDto totalAnterior = acumular(anterior, -1);
+        TotalUnidadeDto totalAtual = acumular(atual, 1);
+
+        for (AssinanteAoVivo assinante : assinantes) {
+            descartados.increment(assinante.enfileirar(mensagem));
+            // os totais são coalescidos por unidade no buffer: numa alteração dentro da mesma unidade vale o último
+            if (totalAnterior != null) {
+                assinante.enfileirar(totalAnterior);
+            }
+            if (totalAtual != null) {
+                assinante.enfileirar(totalAtual);
+            }
+        }
+    }
+
+    @EventListener
+    public void aoAlterarEmMassa(ConsumoAlteracaoEmMassaEvento evento) {
+        carregarTotais();
+        for (AssinanteAoVivo assinante : assinantes) {
+            totais.values().forEach(assinante::enfileirar);
+        }
+    }
+
+    // mantém a conexão viva atrás de proxies e detecta clientes que já saíram
+    @Scheduled(fixedDelayString = "${consumo.aovivo.pulso-ms:15000}")
+    public void pulsar() {
+        assinantes.forEach(AssinanteAoVivo::pulsar);
+    }
+
+    // um envio preso (cliente que parou de ler com o buffer TCP cheio) segura uma thread do executor;
+    // o assinante sai do feed para não acumular mais eventos e a thread volta quando o socket a liberar
+    @Scheduled(fixedDelayString = "${consumo.aovivo.verificacao-ms:1000}")
+    public void verificarEnvios() {
+        long agora = System.nanoTime();
+        long limite = TimeUnit.MILLISECONDS.toNanos(envioTimeoutMs);
+        for (AssinanteAoVivo assinante : assinantes) {
+            if (assinante.derrubarSeTravado(agora, limite)) {
+                assinantes.remove(assinante);
+                derrubados.increment();
+            }
+        }
+    }
+
+    private TotalUnidadeDto acumular(ConsumoEstadoDto estado, int sinal) {
+        if (estado == null || estado.unidade() == null || estado.qtdConsumo() == null) {
+            return null;
+        }
+        return totais.compute(estado.unidade(), (unidade, total) ->
+                (total != null ? total : new TotalUnidadeDto(unidade, 0, 0)).somar(sinal * estado.qtdConsumo(), sinal));
+    }
+
+    private void carregarTotais() {
+        totais.clear();
+        for (ConsumoAgregadoDto agregado : consumoDiarioService.agregarPorUnidade(INICIO, FIM)) {
+            totais.put(agregado.chave(), new TotalUnidadeDto(agregado.chave(), agregado.soma(), agregado.quantidade()));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.fiap.consumoenergetico.cluster;
+
+import java.util.function.Consumer;
+
+// transporte das invalidações entre as instâncias, escolhido por consumo.cluster.barramento
+// (memoria = instâncias na mesma JVM). Uma implementação real (Redis pub/sub, JMS...) precisa entregar
+// as mensagens de cada publicador em ordem e fora da thread de quem publicou: a publicação
+// acontece no AFTER_COMMIT da transação de origem
+public interface BarramentoCluster {
+
+    // toda mensagem publicada chega a todos os assinantes, inclusive aos da própria instância
+    void publicar(MensagemCluster mensagem);
+
+    // devolve a ação que cancela a assinatura
+    Runnable assinar(Consumer<MensagemCluster> assinante);
+}
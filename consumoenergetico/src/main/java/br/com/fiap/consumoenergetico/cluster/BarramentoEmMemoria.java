@@ -0,0 +1,78 @@
+package br.com.fiap.consumoenergetico.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// barramento dentro da JVM: os canais são estáticos, então vários contextos Spring no mesmo processo
+// (cada um uma "instância" do cluster) conversam entre si. Serve para testes e para rodar uma instância só
+@Component
+@ConditionalOnProperty(name = "consumo.cluster.barramento", havingValue = "memoria")
+public class BarramentoEmMemoria implements BarramentoCluster {
+
+    private static final Logger log = LoggerFactory.getLogger(BarramentoEmMemoria.class);
+
+    private static final Map<String, List<Assinante>> CANAIS = new ConcurrentHashMap<>();
+
+    private final String canal;
+
+    public BarramentoEmMemoria(@Value("${consumo.cluster.canal:consumo}") String canal) {
+        this.canal = canal;
+    }
+
+    @Override
+    public void publicar(MensagemCluster mensagem) {
+        for (Assinante assinante : CANAIS.getOrDefault(canal, List.of())) {
+            assinante.entregar(mensagem);
+        }
+    }
+
+    @Override
+    public Runnable assinar(Consumer<MensagemCluster> consumidor) {
+        Assinante assinante = new Assinante(consumidor);
+        CANAIS.computeIfAbsent(canal, c -> new CopyOnWriteArrayList<>()).add(assinante);
+        return () -> {
+            CANAIS.get(canal).remove(assinante);
+            assinante.encerrar();
+        };
+    }
+
+    // uma thread por assinante: entrega na ordem de publicação e fora da thread (e da transação) de origem
+    private static final class Assinante {
+
+        private final Consumer<MensagemCluster> consumidor;
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "barramento-cluster");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private Assinante(Consumer<MensagemCluster> consumidor) {
+            this.consumidor = consumidor;
+        }
+
+        private void entregar(MensagemCluster mensagem) {
+            executor.execute(() -> {
+                try {
+                    consumidor.accept(mensagem);
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao aplicar mensagem do cluster vinda de {}", mensagem.no(), e);
+                }
+            });
+        }
+
+        private void encerrar() {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.consumoenergetico.cluster;
+
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteracaoEmMassaEvento;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteradoEvento;
+
+// o que atravessa o barramento: só dados (serializáveis em JSON) e a instância de origem.
+// Exatamente um dos dois eventos vem preenchido
+public record MensagemCluster(
+        String no,
+        ConsumoAlteradoEvento alteracao,
+        ConsumoAlteracaoEmMassaEvento alteracaoEmMassa
+) {
+    public static MensagemCluster alteracao(String no, ConsumoAlteradoEvento evento) {
+        return new MensagemCluster(no, evento, null);
+    }
+
+    public static MensagemCluster alteracaoEmMassa(String no, ConsumoAlteracaoEmMassaEvento evento) {
+        return new MensagemCluster(no, null, evento);
+    }
+}
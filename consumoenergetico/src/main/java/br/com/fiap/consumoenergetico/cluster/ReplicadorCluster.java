@@ -0,0 +1,118 @@
+package br.com.fiap.consumoenergetico.cluster;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteracaoEmMassaEvento;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteradoEvento;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+// modo cluster: as escritas confirmadas aqui vão para o barramento, e as das outras instâncias
+// invalidam o cache "consumos" local e são republicadas como eventos locais, para o índice analítico
+// e o feed ao vivo acompanharem. O consolidado diário fica no banco e já é comum a todas.
+// @Lazy(false): a assinatura acontece no construtor, então o bean sobe mesmo com spring.main.lazy-initialization
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "consumo.cluster.habilitado", havingValue = "true")
+public class ReplicadorCluster implements DisposableBean {
+
+    private final BarramentoCluster barramento;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher publicador;
+    private final String no;
+    private final Runnable assinatura;
+    private final Counter enviadas;
+    private final Counter recebidas;
+
+    // marca a thread que está republicando uma mensagem remota, para ela não voltar ao barramento
+    private final ThreadLocal<Boolean> republicando = ThreadLocal.withInitial(() -> false);
+
+    public ReplicadorCluster(BarramentoCluster barramento,
+                             CacheManager cacheManager,
+                             ApplicationEventPublisher publicador,
+                             MeterRegistry registro,
+                             @Value("${consumo.cluster.no:}") String no) {
+        this.barramento = barramento;
+        this.cacheManager = cacheManager;
+        this.publicador = publicador;
+        this.no = no.isBlank() ? UUID.randomUUID().toString() : no;
+        this.enviadas = Counter.builder("consumo.cluster.mensagens")
+                .description("Mensagens de invalidação trocadas com as outras instâncias")
+                .tag("direcao", "enviada")
+                .register(registro);
+        this.recebidas = Counter.builder("consumo.cluster.mensagens")
+                .description("Mensagens de invalidação trocadas com as outras instâncias")
+                .tag("direcao", "recebida")
+                .register(registro);
+        this.assinatura = barramento.assinar(this::receber);
+    }
+
+    public String no() {
+        return no;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(ConsumoAlteradoEvento evento) {
+        if (!republicando.get()) {
+            barramento.publicar(MensagemCluster.alteracao(no, evento));
+            enviadas.increment();
+        }
+    }
+
+    @EventListener
+    public void aoAlterarEmMassa(ConsumoAlteracaoEmMassaEvento evento) {
+        if (!republicando.get()) {
+            barramento.publicar(MensagemCluster.alteracaoEmMassa(no, evento));
+            enviadas.increment();
+        }
+    }
+
+    void receber(MensagemCluster mensagem) {
+        if (no.equals(mensagem.no())) {
+            return;
+        }
+        recebidas.increment();
+        Cache cache = cacheManager.getCache(ConsumoService.CACHE_CONSUMOS);
+        republicando.set(true);
+        try {
+            if (mensagem.alteracao() != null) {
+                if (cache != null) {
+                    evict(cache, mensagem.alteracao().anterior());
+                    evict(cache, mensagem.alteracao().atual());
+                }
+                publicador.publishEvent(mensagem.alteracao());
+            }
+            if (mensagem.alteracaoEmMassa() != null) {
+                if (cache != null) {
+                    cache.clear();
+                }
+                publicador.publishEvent(mensagem.alteracaoEmMassa());
+            }
+        } finally {
+            republicando.remove();
+        }
+    }
+
+    private static void evict(Cache cache, ConsumoEstadoDto estado) {
+        if (estado != null && estado.id() != null) {
+            cache.evict(estado.id());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        assinatura.run();
+    }
+}
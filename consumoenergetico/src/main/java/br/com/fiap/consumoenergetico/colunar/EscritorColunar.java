@@ -0,0 +1,153 @@
+package br.com.fiap.consumoenergetico.colunar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.fiap.consumoenergetico.colunar.FormatoColunar.*;
+
+// acumula as linhas em colunas e grava um bloco por vez no canal; não fecha o canal.
+// O rodapé só sai em finalizar(): um close() sem ele (exportação interrompida) deixa o arquivo sem
+// rodapé, e o LeitorColunar o recusa como truncado
+public class EscritorColunar implements AutoCloseable {
+
+    // pior caso por linha: 10 bytes de varint do dia + 5 do código + 8 do double
+    private static final int BYTES_POR_LINHA = 10 + 5 + Double.BYTES;
+
+    private final WritableByteChannel canal;
+    private final int linhasPorBloco;
+
+    private final long[] dias;
+    private final int[] codigos;
+    private final double[] quantidades;
+    private int linhas;
+
+    private final Map<String, Integer> dicionario = new HashMap<>();
+    private final List<byte[]> novasUnidades = new ArrayList<>();
+
+    private ByteBuffer buffer;
+    private long totalLinhas;
+    private long totalBytes;
+    private boolean finalizado;
+    private boolean fechado;
+
+    public EscritorColunar(WritableByteChannel canal) throws IOException {
+        this(canal, LINHAS_POR_BLOCO);
+    }
+
+    public EscritorColunar(WritableByteChannel canal, int linhasPorBloco) throws IOException {
+        this.canal = canal;
+        this.linhasPorBloco = linhasPorBloco;
+        this.dias = new long[linhasPorBloco];
+        this.codigos = new int[linhasPorBloco];
+        this.quantidades = new double[linhasPorBloco];
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_CABECALHO_BLOCO + linhasPorBloco * BYTES_POR_LINHA + 1024)
+                .order(ORDEM);
+
+        buffer.putInt(MAGICO).put(VERSAO);
+        gravar();
+    }
+
+    public void escrever(LocalDate data, String unidade, double qtdConsumo) throws IOException {
+        aberto();
+        Integer codigo = dicionario.get(unidade);
+        if (codigo == null) {
+            codigo = dicionario.size();
+            dicionario.put(unidade, codigo);
+            novasUnidades.add(unidade.getBytes(StandardCharsets.UTF_8));
+        }
+        dias[linhas] = data.toEpochDay();
+        codigos[linhas] = codigo;
+        quantidades[linhas] = qtdConsumo;
+        if (++linhas == linhasPorBloco) {
+            descarregarBloco();
+        }
+    }
+
+    public long totalLinhas() {
+        return totalLinhas;
+    }
+
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    // grava o último bloco e o rodapé com o total de linhas
+    public void finalizar() throws IOException {
+        aberto();
+        finalizado = true;
+        descarregarBloco();
+        buffer.putInt(0).putLong(totalLinhas);
+        gravar();
+    }
+
+    // só libera o buffer; as linhas ainda não descarregadas são descartadas
+    @Override
+    public void close() {
+        fechado = true;
+        buffer = null;
+    }
+
+    private void aberto() {
+        if (finalizado || fechado) {
+            throw new IllegalStateException("Escritor colunar já finalizado ou fechado");
+        }
+    }
+
+    private void descarregarBloco() throws IOException {
+        if (linhas == 0) {
+            return;
+        }
+        garantirCapacidade();
+
+        int inicio = buffer.position();
+        buffer.putInt(linhas).putInt(0);
+
+        escreverVarint(buffer, novasUnidades.size());
+        for (byte[] unidade : novasUnidades) {
+            escreverVarint(buffer, unidade.length);
+            buffer.put(unidade);
+        }
+        novasUnidades.clear();
+
+        escreverVarint(buffer, zigzag(dias[0]));
+        for (int i = 1; i < linhas; i++) {
+            escreverVarint(buffer, zigzag(dias[i] - dias[i - 1]));
+        }
+        for (int i = 0; i < linhas; i++) {
+            escreverVarint(buffer, codigos[i]);
+        }
+        buffer.asDoubleBuffer().put(quantidades, 0, linhas);
+        buffer.position(buffer.position() + linhas * Double.BYTES);
+
+        buffer.putInt(inicio + Integer.BYTES, buffer.position() - inicio - TAMANHO_CABECALHO_BLOCO);
+        totalLinhas += linhas;
+        linhas = 0;
+        gravar();
+    }
+
+    // o dicionário novo de um bloco pode passar da reserva fixa quando há muitas unidades diferentes
+    private void garantirCapacidade() {
+        int necessario = TAMANHO_CABECALHO_BLOCO + linhas * BYTES_POR_LINHA + 5;
+        for (byte[] unidade : novasUnidades) {
+            necessario += 5 + unidade.length;
+        }
+        if (necessario > buffer.capacity()) {
+            buffer = ByteBuffer.allocateDirect(necessario).order(ORDEM);
+        }
+    }
+
+    private void gravar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            totalBytes += canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.fiap.consumoenergetico.colunar;
+
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// formato binário colunar de consumos (.cec), little-endian:
+//   cabeçalho: int MAGICO, byte VERSAO
+//   bloco:     int linhas (> 0), int bytes do restante do bloco,
+//              varint novas unidades + (varint tamanho, UTF-8) de cada uma  -> dicionário cresce bloco a bloco
+//              zigzag varint do primeiro dia (epoch day) + zigzag varint das diferenças seguintes
+//              varint do código de dicionário da unidade de cada linha
+//              double de cada qtdConsumo, empacotados
+//   fim:       int 0, long total de linhas
+public final class FormatoColunar {
+
+    public static final int MAGICO = 0x31434543; // "CEC1"
+    public static final byte VERSAO = 1;
+    public static final int LINHAS_POR_BLOCO = 4096;
+    public static final ByteOrder ORDEM = ByteOrder.LITTLE_ENDIAN;
+
+    static final int TAMANHO_CABECALHO = Integer.BYTES + 1;
+    static final int TAMANHO_CABECALHO_BLOCO = Integer.BYTES * 2;
+
+    private FormatoColunar() {
+    }
+
+    static void escreverVarint(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    static long lerVarint(ByteBuffer origem) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = origem.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new ParametroInvalidoException("Arquivo colunar inválido: varint malformado");
+    }
+
+    static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    static long desfazerZigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+}
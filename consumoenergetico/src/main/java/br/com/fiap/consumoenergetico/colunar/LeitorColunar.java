@@ -0,0 +1,126 @@
+package br.com.fiap.consumoenergetico.colunar;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.fiap.consumoenergetico.colunar.FormatoColunar.*;
+
+// lê um arquivo .cec mapeado em memória, um bloco por chamada de proximoBloco
+public class LeitorColunar {
+
+    private final ByteBuffer buffer;
+    private final List<String> dicionario = new ArrayList<>();
+    private long totalLinhas;
+    private boolean fim;
+
+    public LeitorColunar(ByteBuffer buffer) {
+        this.buffer = buffer.order(ORDEM);
+        try {
+            if (this.buffer.getInt() != MAGICO) {
+                throw new ParametroInvalidoException("Arquivo colunar inválido: cabeçalho desconhecido");
+            }
+            byte versao = this.buffer.get();
+            if (versao != VERSAO) {
+                throw new ParametroInvalidoException("Versão de arquivo colunar não suportada: " + versao);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new ParametroInvalidoException("Arquivo colunar inválido: cabeçalho truncado");
+        }
+    }
+
+    // o mapeamento único limita o arquivo a 2 GB (~150 milhões de leituras)
+    public static LeitorColunar mapear(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new ParametroInvalidoException("Arquivo colunar maior que 2 GB");
+            }
+            MappedByteBuffer mapeado = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new LeitorColunar(mapeado);
+        }
+    }
+
+    // devolve false ao chegar no rodapé; as linhas do bloco são adicionadas em destino
+    public boolean proximoBloco(List<ConsumoCadastroDto> destino) {
+        if (fim) {
+            return false;
+        }
+        try {
+            int linhas = buffer.getInt();
+            if (linhas == 0) {
+                long declarado = buffer.getLong();
+                if (declarado != totalLinhas) {
+                    throw new ParametroInvalidoException("Arquivo colunar inválido: rodapé declara " + declarado
+                            + " linhas, lidas " + totalLinhas);
+                }
+                fim = true;
+                return false;
+            }
+            int bytes = buffer.getInt();
+            // cada linha ocupa ao menos 10 bytes (dia, código e double)
+            if (linhas < 0 || bytes < 0 || bytes > buffer.remaining() || (long) linhas * 10 > bytes) {
+                throw new ParametroInvalidoException("Arquivo colunar inválido: bloco truncado");
+            }
+            lerBloco(buffer.slice(buffer.position(), bytes).order(ORDEM), linhas, destino);
+            buffer.position(buffer.position() + bytes);
+            totalLinhas += linhas;
+            return true;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                 | DateTimeException e) {
+            throw new ParametroInvalidoException("Arquivo colunar inválido: bloco truncado");
+        }
+    }
+
+    private void lerBloco(ByteBuffer bloco, int linhas, List<ConsumoCadastroDto> destino) {
+        // tamanhos vêm do arquivo: validados contra o que resta do bloco antes de qualquer alocação
+        long novas = lerVarint(bloco);
+        if (novas < 0 || novas > bloco.remaining()) {
+            throw new ParametroInvalidoException("Arquivo colunar inválido: dicionário truncado");
+        }
+        for (long i = 0; i < novas; i++) {
+            long tamanho = lerVarint(bloco);
+            if (tamanho < 0 || tamanho > bloco.remaining()) {
+                throw new ParametroInvalidoException("Arquivo colunar inválido: unidade truncada");
+            }
+            byte[] unidade = new byte[(int) tamanho];
+            bloco.get(unidade);
+            dicionario.add(new String(unidade, StandardCharsets.UTF_8));
+        }
+
+        long[] dias = new long[linhas];
+        dias[0] = desfazerZigzag(lerVarint(bloco));
+        for (int i = 1; i < linhas; i++) {
+            dias[i] = dias[i - 1] + desfazerZigzag(lerVarint(bloco));
+        }
+
+        int[] codigos = new int[linhas];
+        for (int i = 0; i < linhas; i++) {
+            long codigo = lerVarint(bloco);
+            if (codigo >= dicionario.size()) {
+                throw new ParametroInvalidoException("Arquivo colunar inválido: unidade fora do dicionário");
+            }
+            codigos[i] = (int) codigo;
+        }
+
+        double[] quantidades = new double[linhas];
+        DoubleBuffer colunaQuantidades = bloco.asDoubleBuffer();
+        colunaQuantidades.get(quantidades);
+
+        for (int i = 0; i < linhas; i++) {
+            destino.add(new ConsumoCadastroDto(quantidades[i], LocalDate.ofEpochDay(dias[i]), dicionario.get(codigos[i])));
+        }
+    }
+}
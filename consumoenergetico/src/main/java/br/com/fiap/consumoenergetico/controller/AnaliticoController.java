@@ -0,0 +1,48 @@
+package br.com.fiap.consumoenergetico.controller;
+
+import br.com.fiap.consumoenergetico.analitico.IndiceAnalitico;
+import br.com.fiap.consumoenergetico.dto.DiaConsumoDto;
+import br.com.fiap.consumoenergetico.dto.IndiceMemoriaDto;
+import br.com.fiap.consumoenergetico.dto.SomaPeriodoDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// consultas respondidas pelo índice em memória, sem ida ao banco
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "consumo.analitico.habilitado", havingValue = "true")
+public class AnaliticoController {
+
+    @Autowired
+    private IndiceAnalitico indiceAnalitico;
+
+    @GetMapping("/consumo/analitico/soma")
+    public SomaPeriodoDto somar(
+            @RequestParam(required = false) String unidade,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return indiceAnalitico.somar(unidade, de, ate);
+    }
+
+    @GetMapping("/consumo/analitico/maiores-dias")
+    public List<DiaConsumoDto> maioresDias(@RequestParam String unidade,
+                                           @RequestParam(defaultValue = "10") int limite) {
+        return indiceAnalitico.maioresDias(unidade, limite);
+    }
+
+    @GetMapping("/consumo/analitico/memoria")
+    public IndiceMemoriaDto memoria() {
+        return indiceAnalitico.memoria();
+    }
+
+    @PostMapping("/consumo/analitico/recarregar")
+    public IndiceMemoriaDto recarregar() {
+        indiceAnalitico.carregar();
+        return indiceAnalitico.memoria();
+    }
+}
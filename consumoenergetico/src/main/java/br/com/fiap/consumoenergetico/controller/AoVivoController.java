@@ -0,0 +1,24 @@
+package br.com.fiap.consumoenergetico.controller;
+
+import br.com.fiap.consumoenergetico.aovivo.PoliticaBuffer;
+import br.com.fiap.consumoenergetico.aovivo.TransmissorAoVivo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// substitui o polling de GET /api/consumo: eventos "consumo", "total" e "descartados"
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "consumo.aovivo.habilitado", havingValue = "true")
+public class AoVivoController {
+
+    @Autowired
+    private TransmissorAoVivo transmissorAoVivo;
+
+    @GetMapping(value = "/consumo/ao-vivo", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinar(@RequestParam(defaultValue = "descartar") String politica) {
+        return transmissorAoVivo.assinar(PoliticaBuffer.de(politica));
+    }
+}
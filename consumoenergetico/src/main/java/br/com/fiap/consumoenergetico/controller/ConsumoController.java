@@ -11,19 +11,46 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
 import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoCursorDto;
 import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoFiltroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoGravacaoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteResultadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoQuarentenaDto;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
 import br.com.fiap.consumoenergetico.service.ConsumoService;
+import br.com.fiap.consumoenergetico.service.AnomaliaService;
+import br.com.fiap.consumoenergetico.service.TransferenciaColunarService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api")
@@ -32,32 +59,163 @@ public class ConsumoController {
     @Autowired
     private ConsumoService consumoService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransferenciaColunarService transferenciaColunarService;
+
+    @Autowired
+    private AnomaliaService anomaliaService;
+
     @PostMapping("/consumo")
-    public ResponseEntity<ConsumoExibicaoDto> gravar(@RequestBody @Valid ConsumoCadastroDto dto) {
-        // mapeia o DTO de entrada para a entidade que o service já usa
-        ConsumoEnergetico entity = new ConsumoEnergetico();
-        entity.setQtdConsumo(dto.qtdConsumo());
-        entity.setData(dto.data());
-        entity.setUnidade(dto.unidade());
+    public ResponseEntity<?> gravar(@RequestBody @Valid ConsumoCadastroDto dto,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
+                                    @RequestParam(defaultValue = "false") boolean idempotente) {
+        // repetições com a mesma chave (ou mesma unidade e data) devolvem a leitura já gravada;
+        // leitura barrada pela triagem de anomalias: 202 com o registro da quarentena
+        ConsumoGravacaoDto gravacao = idempotente || chaveIdempotencia != null
+                ? consumoService.gravarIdempotente(dto, chaveIdempotencia)
+                : consumoService.gravarTriado(dto);
+        if (gravacao.quarentena() != null) {
+            return ResponseEntity.accepted().body(gravacao.quarentena());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(gravacao.consumo());
+    }
 
-        ConsumoExibicaoDto salvo = consumoService.gravar(entity);
-        return ResponseEntity.status(HttpStatus.CREATED).body(salvo);
+    @PostMapping(value = "/consumo/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ConsumoLoteResultadoDto> gravarLote(@RequestBody List<ConsumoCadastroDto> registros,
+                                                              @RequestParam(defaultValue = "false") boolean idempotente) {
+        if (idempotente) {
+            return ResponseEntity.ok(consumoService.gravarLoteIdempotente(registros));
+        }
+        return ResponseEntity.ok(consumoService.gravarLote(registros));
+    }
+
+    @PostMapping(value = "/consumo/lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ConsumoLoteResultadoDto> gravarLoteNdjson(InputStream corpo,
+                                                                    @RequestParam(defaultValue = "false") boolean idempotente) throws IOException {
+        // uma leitura por linha; linha ilegível vira registro nulo e é rejeitada pelo service
+        List<ConsumoCadastroDto> registros = new ArrayList<>();
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        String linha;
+        while ((linha = leitor.readLine()) != null) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            try {
+                registros.add(objectMapper.readValue(linha, ConsumoCadastroDto.class));
+            } catch (JsonProcessingException e) {
+                registros.add(null);
+            }
+        }
+        if (idempotente) {
+            return ResponseEntity.ok(consumoService.gravarLoteIdempotente(registros));
+        }
+        return ResponseEntity.ok(consumoService.gravarLote(registros));
     }
 
     @GetMapping("/consumo")
-    public Page<ConsumoExibicaoDto> listarConsumoEnergetico(Pageable pageable){
-        return consumoService.listarConsumos(pageable);
+    public Page<ConsumoExibicaoDto> listarConsumoEnergetico(
+            @RequestParam(required = false) String unidade,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) Double min,
+            @RequestParam(required = false) Double max,
+            Pageable pageable){
+        return consumoService.listarConsumos(new ConsumoFiltroDto(unidade, de, ate, min, max), pageable);
+    }
+
+    // modo cursor: GET /api/consumo?cursor=&tamanho=50 (cursor vazio = primeira página)
+    @GetMapping(value = "/consumo", params = "cursor")
+    public ConsumoCursorDto listarConsumoPorCursor(@RequestParam String cursor,
+                                                   @RequestParam(defaultValue = "20") int tamanho){
+        if (tamanho < 1 || tamanho > 1000) {
+            throw new ParametroInvalidoException("tamanho deve estar entre 1 e 1000");
+        }
+        return consumoService.listarPorCursor(cursor, tamanho);
+    }
+
+    @GetMapping("/consumo/{id}")
+    public ConsumoExibicaoDto buscarConsumo(@PathVariable long id){
+        return consumoService.BuscarPorId(id);
+    }
+
+    @GetMapping("/consumo/agregado")
+    public List<ConsumoAgregadoDto> agregarConsumo(
+            @RequestParam(defaultValue = "unidade") String por,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate){
+        return consumoService.agregar(por, de, ate);
+    }
+
+    // leituras barradas ou sinalizadas pela triagem de anomalias (?motivo=NEGATIVO|DUPLICADO|FORA_DO_PADRAO)
+    @GetMapping("/consumo/quarentena")
+    public Page<ConsumoQuarentenaDto> listarQuarentena(@RequestParam(required = false) String motivo, Pageable pageable){
+        return anomaliaService.listar(motivo, pageable);
+    }
+
+    @GetMapping("/consumo/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "ndjson") String formato) {
+        if ("colunar".equalsIgnoreCase(formato)) {
+            StreamingResponseBody corpo = saida -> transferenciaColunarService.exportar(Channels.newChannel(saida));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header("Content-Disposition", "attachment; filename=consumos.cec")
+                    .body(corpo);
+        }
+
+        boolean csv = "csv".equalsIgnoreCase(formato);
+        if (!csv && !"ndjson".equalsIgnoreCase(formato)) {
+            throw new ParametroInvalidoException("Formato de exportação inválido: " + formato);
+        }
+
+        StreamingResponseBody corpo = saida -> {
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            if (csv) {
+                escritor.write("id,qtdConsumo,data,unidade\n");
+            }
+            consumoService.exportar(consumo -> {
+                try {
+                    escritor.write(csv ? linhaCsv(consumo) : objectMapper.writeValueAsString(consumo));
+                    escritor.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=consumos." + (csv ? "csv" : "ndjson"))
+                .body(corpo);
+    }
+
+    // importa um arquivo gerado por GET /consumo/exportar?formato=colunar
+    @PostMapping(value = "/consumo/importar", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ConsumoLoteResultadoDto> importar(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(transferenciaColunarService.importar(corpo));
+    }
+
+    private static String linhaCsv(ConsumoExibicaoDto consumo) {
+        String unidade = consumo.unidade();
+        if (unidade.indexOf(',') >= 0 || unidade.indexOf('"') >= 0 || unidade.indexOf('\n') >= 0) {
+            unidade = '"' + unidade.replace("\"", "\"\"") + '"';
+        }
+        return consumo.id() + "," + consumo.qtdConsumo() + "," + consumo.data() + "," + unidade;
     }
 
     @DeleteMapping("/consumo/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void removerConsumo(@PathVariable long id){
-        consumoService.remover(id);
+    public void removerConsumo(@PathVariable long id, @RequestParam(required = false) Long versao){
+        consumoService.remover(id, versao);
     }
 
+    // responde com o DTO de exibição: as chaves de idempotência da entidade não saem da API
     @PutMapping("/consumo")
-    public ResponseEntity<ConsumoEnergetico> atualizarConsumo(@RequestBody @Valid ConsumoEnergetico consumoEnergetico){
+    public ResponseEntity<ConsumoExibicaoDto> atualizarConsumo(@RequestBody @Valid ConsumoEnergetico consumoEnergetico){
         ConsumoEnergetico atualizado = consumoService.atualizar(consumoEnergetico);
-        return ResponseEntity.ok(atualizado);
+        return ResponseEntity.ok(new ConsumoExibicaoDto(atualizado));
     }
 }
@@ -0,0 +1,43 @@
+package br.com.fiap.consumoenergetico.controller;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.IngestaoStatusDto;
+import br.com.fiap.consumoenergetico.exception.ConsumoNaoEncontradoException;
+import br.com.fiap.consumoenergetico.ingestao.FilaIngestao;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "consumo.ingestao.assincrona.habilitada", havingValue = "true")
+public class IngestaoController {
+
+    @Autowired
+    private FilaIngestao filaIngestao;
+
+    @PostMapping("/consumo/assincrono")
+    public ResponseEntity<IngestaoStatusDto> aceitar(@RequestBody @Valid ConsumoCadastroDto dto) {
+        Optional<String> rastreio = filaIngestao.aceitar(dto);
+        if (rastreio.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/consumo/assincrono/" + rastreio.get()))
+                .body(IngestaoStatusDto.pendente(rastreio.get()));
+    }
+
+    @GetMapping("/consumo/assincrono/{rastreio}")
+    public IngestaoStatusDto status(@PathVariable String rastreio) {
+        return filaIngestao.status(rastreio)
+                .orElseThrow(() -> new ConsumoNaoEncontradoException("Rastreio não encontrado"));
+    }
+}
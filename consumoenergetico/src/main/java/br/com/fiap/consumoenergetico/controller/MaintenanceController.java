@@ -1,48 +1,77 @@
 package br.com.fiap.consumoenergetico.controller;
 
-import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
-import br.com.fiap.consumoenergetico.repo.ConsumoRepository;
+import br.com.fiap.consumoenergetico.dto.CorrecaoNegativosDto;
+import br.com.fiap.consumoenergetico.dto.RetencaoResultadoDto;
+import br.com.fiap.consumoenergetico.job.CorrecaoNegativosJob;
+import br.com.fiap.consumoenergetico.job.RetencaoConsumoJob;
+import br.com.fiap.consumoenergetico.service.ConsumoDiarioService;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/internal/maintenance")
 @Profile("test")
 public class MaintenanceController {
 
-    private final ConsumoRepository repo;
+    private final CorrecaoNegativosJob correcaoNegativosJob;
+    private final ConsumoDiarioService consumoDiarioService;
+    private final RetencaoConsumoJob retencaoConsumoJob;
 
-    public MaintenanceController(ConsumoRepository repo) {
-        this.repo = repo;
+    public MaintenanceController(CorrecaoNegativosJob correcaoNegativosJob,
+                                 ConsumoDiarioService consumoDiarioService,
+                                 RetencaoConsumoJob retencaoConsumoJob) {
+        this.correcaoNegativosJob = correcaoNegativosJob;
+        this.consumoDiarioService = consumoDiarioService;
+        this.retencaoConsumoJob = retencaoConsumoJob;
     }
 
+    // dryRun=true só conta; async=true devolve 202 e o andamento fica em GET /fix-negativos
     @PostMapping("/fix-negativos")
-    @Transactional
-    public ResponseEntity<?> fixNegativos(@RequestParam(defaultValue = "delete") String strategy) {
-        try {
-            List<ConsumoEnergetico> negativos = repo.findByQtdConsumoLessThan(0);
-            int count = 0;
-
-            if ("zero".equalsIgnoreCase(strategy)) {
-                for (ConsumoEnergetico c : negativos) {
-                    c.setQtdConsumo(0);
-                }
-                repo.saveAll(negativos);
-                count = negativos.size();
-                return ResponseEntity.ok("Negativos zerados: " + count);
-            } else {
-                repo.deleteAll(negativos);
-                count = negativos.size();
-                return ResponseEntity.ok("Negativos removidos: " + count);
-            }
-        } catch (Exception e) {
-            // Retorna a causa no body para você enxergar do lado do curl/PowerShell
+    public ResponseEntity<?> fixNegativos(@RequestParam(defaultValue = "delete") String strategy,
+                                          @RequestParam(defaultValue = "false") boolean dryRun,
+                                          @RequestParam(defaultValue = "false") boolean async,
+                                          @RequestParam(defaultValue = "500") int tamanhoLote) {
+        if (dryRun) {
+            return ResponseEntity.ok("Negativos encontrados: " + correcaoNegativosJob.contar());
+        }
+        if (async) {
+            return ResponseEntity.accepted().body(correcaoNegativosJob.iniciar(strategy, tamanhoLote));
+        }
+
+        // tamanhoLote inválido (400) e correção já em execução (409) saem pelas exceções do reservar();
+        // falhas depois disso voltam no resultado com estado FALHOU
+        CorrecaoNegativosDto resultado = correcaoNegativosJob.executar(strategy, tamanhoLote);
+        if ("FALHOU".equals(resultado.estado())) {
             return ResponseEntity.internalServerError()
-                    .body("Erro ao corrigir negativos: " + e.getClass().getSimpleName() + " - " + e.getMessage());
+                    .body("Erro ao corrigir negativos: " + resultado.erro());
         }
+        if ("zero".equalsIgnoreCase(strategy)) {
+            return ResponseEntity.ok("Negativos zerados: " + resultado.processados());
+        } else {
+            return ResponseEntity.ok("Negativos removidos: " + resultado.processados());
+        }
+    }
+
+    @GetMapping("/fix-negativos")
+    public CorrecaoNegativosDto progressoFixNegativos() {
+        return correcaoNegativosJob.progresso();
+    }
+
+    @DeleteMapping("/fix-negativos")
+    public ResponseEntity<CorrecaoNegativosDto> cancelarFixNegativos() {
+        return ResponseEntity.accepted().body(correcaoNegativosJob.cancelar());
+    }
+
+    @PostMapping("/consumo-diario/reconstruir")
+    public ResponseEntity<?> reconstruirConsumoDiario() {
+        int dias = consumoDiarioService.reconstruir();
+        return ResponseEntity.ok("Dias consolidados: " + dias);
+    }
+
+    // dispara a retenção fora do agendamento (consumo.retencao.cron)
+    @PostMapping("/retencao")
+    public RetencaoResultadoDto executarRetencao(@RequestParam(defaultValue = "${consumo.retencao.meses:24}") int meses) {
+        return retencaoConsumoJob.executar(meses);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.time.LocalDate;
+
+public record ConsumoAgregadoDto(
+        String chave,
+        Double soma,
+        Double media,
+        Double minimo,
+        Double maximo,
+        Long quantidade
+) {
+    // agrupamento por dia
+    public ConsumoAgregadoDto(LocalDate dia, Double soma, Double media, Double minimo, Double maximo, Long quantidade){
+        this(dia.toString(), soma, media, minimo, maximo, quantidade);
+    }
+
+    // agrupamento por mês (chave no formato yyyy-MM)
+    public ConsumoAgregadoDto(Integer ano, Integer mes, Double soma, Double media, Double minimo, Double maximo, Long quantidade){
+        this(String.format("%04d-%02d", ano, mes), soma, media, minimo, maximo, quantidade);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.fiap.consumoenergetico.dto;
+
+// evento "consumo" do /api/consumo/ao-vivo; tipo: INCLUIDO, ALTERADO ou REMOVIDO
+public record ConsumoAoVivoDto(
+        String tipo,
+        ConsumoExibicaoDto consumo
+) {
+}
@@ -0,0 +1,8 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.util.List;
+
+public record ConsumoCursorDto(
+        List<ConsumoExibicaoDto> conteudo,
+        String proximo
+) { }
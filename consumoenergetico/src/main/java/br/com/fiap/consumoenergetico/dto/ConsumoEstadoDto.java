@@ -0,0 +1,28 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+
+import java.time.LocalDate;
+
+// estado mínimo de uma leitura, lido antes de uma escrita para aplicar o delta no consolidado diário
+public record ConsumoEstadoDto(
+        Long id,
+        String unidade,
+        LocalDate data,
+        Double qtdConsumo,
+        Long versao
+) {
+    // só o par (unidade, data), para a checagem de duplicidade
+    public ConsumoEstadoDto(String unidade, LocalDate data){
+        this(null, unidade, data, null, null);
+    }
+
+    public ConsumoEstadoDto(ConsumoEnergetico consumoEnergetico){
+        this(
+                consumoEnergetico.getId(),
+                consumoEnergetico.getUnidade(),
+                consumoEnergetico.getData(),
+                consumoEnergetico.getQtdConsumo(),
+                consumoEnergetico.getVersao());
+    }
+}
@@ -13,13 +13,15 @@ public record ConsumoExibicaoDto(
         @NotNull(message = "Data obrigatória")
         LocalDate data,
         @NotBlank(message = "Unidade obrigatória")
-        String unidade
+        String unidade,
+        Long versao
 ) {
     public ConsumoExibicaoDto(ConsumoEnergetico consumoEnergetico){
         this (
                 consumoEnergetico.getId(),
                 consumoEnergetico.getQtdConsumo(),
                 consumoEnergetico.getData(),
-                consumoEnergetico.getUnidade());
+                consumoEnergetico.getUnidade(),
+                consumoEnergetico.getVersao());
     }
 }
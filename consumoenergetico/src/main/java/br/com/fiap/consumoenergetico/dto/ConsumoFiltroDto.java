@@ -0,0 +1,15 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.time.LocalDate;
+
+public record ConsumoFiltroDto(
+        String unidade,
+        LocalDate de,
+        LocalDate ate,
+        Double min,
+        Double max
+) {
+    public boolean vazio() {
+        return unidade == null && de == null && ate == null && min == null && max == null;
+    }
+}
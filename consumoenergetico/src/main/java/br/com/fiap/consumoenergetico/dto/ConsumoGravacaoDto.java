@@ -0,0 +1,15 @@
+package br.com.fiap.consumoenergetico.dto;
+
+// resultado de uma gravação triada: a leitura gravada ou, se barrada, o registro da quarentena
+public record ConsumoGravacaoDto(
+        ConsumoExibicaoDto consumo,
+        ConsumoQuarentenaDto quarentena
+) {
+    public static ConsumoGravacaoDto gravado(ConsumoExibicaoDto consumo) {
+        return new ConsumoGravacaoDto(consumo, null);
+    }
+
+    public static ConsumoGravacaoDto barrado(ConsumoQuarentenaDto quarentena) {
+        return new ConsumoGravacaoDto(null, quarentena);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.util.Map;
+
+public record ConsumoLoteItemDto(
+        int indice,
+        boolean aceito,
+        Long id,
+        Map<String, String> erros
+) {
+    public static ConsumoLoteItemDto aceito(int indice, Long id) {
+        return new ConsumoLoteItemDto(indice, true, id, Map.of());
+    }
+
+    public static ConsumoLoteItemDto rejeitado(int indice, Map<String, String> erros) {
+        return new ConsumoLoteItemDto(indice, false, null, erros);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.util.List;
+
+public record ConsumoLoteResultadoDto(
+        int aceitos,
+        int rejeitados,
+        List<ConsumoLoteItemDto> itens
+) { }
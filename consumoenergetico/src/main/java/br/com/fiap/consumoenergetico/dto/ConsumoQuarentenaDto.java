@@ -0,0 +1,29 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import br.com.fiap.consumoenergetico.model.ConsumoQuarentena;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record ConsumoQuarentenaDto(
+        Long id,
+        double qtdConsumo,
+        LocalDate data,
+        String unidade,
+        String motivo,
+        String detalhe,
+        String estado,
+        LocalDateTime dataRegistro
+) {
+    public ConsumoQuarentenaDto(ConsumoQuarentena quarentena){
+        this(
+                quarentena.getId(),
+                quarentena.getQtdConsumo(),
+                quarentena.getData(),
+                quarentena.getUnidade(),
+                quarentena.getMotivo(),
+                quarentena.getDetalhe(),
+                quarentena.getEstado(),
+                quarentena.getDataRegistro());
+    }
+}
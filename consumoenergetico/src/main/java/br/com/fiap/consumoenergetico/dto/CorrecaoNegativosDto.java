@@ -0,0 +1,18 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.time.LocalDateTime;
+
+public record CorrecaoNegativosDto(
+        String estado,
+        String estrategia,
+        long total,
+        long processados,
+        int lotes,
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        String erro
+) {
+    public static CorrecaoNegativosDto ociosa() {
+        return new CorrecaoNegativosDto("OCIOSA", null, 0, 0, 0, null, null, null);
+    }
+}
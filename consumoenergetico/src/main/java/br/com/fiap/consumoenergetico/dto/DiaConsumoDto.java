@@ -0,0 +1,10 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.time.LocalDate;
+
+public record DiaConsumoDto(
+        LocalDate dia,
+        double soma,
+        long quantidade
+) {
+}
@@ -0,0 +1,13 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.time.LocalDateTime;
+
+public record IndiceMemoriaDto(
+        int unidades,
+        long dias,
+        long leituras,
+        long bytes,
+        Long bytesPorMilhaoLeituras,
+        LocalDateTime carregadoEm
+) {
+}
@@ -0,0 +1,14 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.util.Map;
+
+public record IngestaoStatusDto(
+        String rastreio,
+        String estado,
+        Long id,
+        Map<String, String> erros
+) {
+    public static IngestaoStatusDto pendente(String rastreio) {
+        return new IngestaoStatusDto(rastreio, "PENDENTE", null, Map.of());
+    }
+}
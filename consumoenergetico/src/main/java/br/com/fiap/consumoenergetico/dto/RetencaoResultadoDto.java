@@ -0,0 +1,13 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record RetencaoResultadoDto(
+        LocalDate corte,
+        int arquivados,
+        List<String> mesesDescartados,
+        boolean particionada,
+        long duracaoMs
+) {
+}
@@ -0,0 +1,13 @@
+package br.com.fiap.consumoenergetico.dto;
+
+import java.time.LocalDate;
+
+public record SomaPeriodoDto(
+        String unidade,
+        LocalDate de,
+        LocalDate ate,
+        double soma,
+        long quantidade,
+        Double media
+) {
+}
@@ -0,0 +1,11 @@
+package br.com.fiap.consumoenergetico.dto;
+
+public record TotalUnidadeDto(
+        String unidade,
+        double soma,
+        long quantidade
+) {
+    public TotalUnidadeDto somar(double valor, long leituras) {
+        return new TotalUnidadeDto(unidade, soma + valor, quantidade + leituras);
+    }
+}
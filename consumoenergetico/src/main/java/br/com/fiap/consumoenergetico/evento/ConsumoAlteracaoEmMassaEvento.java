@@ -0,0 +1,6 @@
+package br.com.fiap.consumoenergetico.evento;
+
+// escritas em massa que não geram um ConsumoAlteradoEvento por linha (ex.: retenção);
+// quem mantém estado derivado em memória deve recarregá-lo
+public record ConsumoAlteracaoEmMassaEvento(String origem) {
+}
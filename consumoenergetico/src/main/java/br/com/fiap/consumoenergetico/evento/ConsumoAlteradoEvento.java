@@ -0,0 +1,19 @@
+package br.com.fiap.consumoenergetico.evento;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+
+// publicado pelo ConsumoService dentro da transação; os ouvintes usam
+// @TransactionalEventListener(AFTER_COMMIT) para só enxergar escritas confirmadas.
+// anterior == null -> inclusão; atual == null -> remoção
+public record ConsumoAlteradoEvento(
+        ConsumoEstadoDto anterior,
+        ConsumoEstadoDto atual
+) {
+    public static ConsumoAlteradoEvento inclusao(ConsumoEstadoDto atual) {
+        return new ConsumoAlteradoEvento(null, atual);
+    }
+
+    public static ConsumoAlteradoEvento remocao(ConsumoEstadoDto anterior) {
+        return new ConsumoAlteradoEvento(anterior, null);
+    }
+}
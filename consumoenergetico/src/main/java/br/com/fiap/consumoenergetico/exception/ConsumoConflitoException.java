@@ -0,0 +1,12 @@
+package br.com.fiap.consumoenergetico.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConsumoConflitoException extends RuntimeException {
+
+    public ConsumoConflitoException(String mensagem) {
+        super(mensagem);
+    }
+}
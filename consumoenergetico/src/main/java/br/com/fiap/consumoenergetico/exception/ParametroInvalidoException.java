@@ -0,0 +1,12 @@
+package br.com.fiap.consumoenergetico.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ParametroInvalidoException extends RuntimeException {
+
+    public ParametroInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
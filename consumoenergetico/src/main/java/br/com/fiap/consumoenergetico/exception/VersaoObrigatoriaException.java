@@ -0,0 +1,12 @@
+package br.com.fiap.consumoenergetico.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_REQUIRED)
+public class VersaoObrigatoriaException extends RuntimeException {
+
+    public VersaoObrigatoriaException(String mensagem) {
+        super(mensagem);
+    }
+}
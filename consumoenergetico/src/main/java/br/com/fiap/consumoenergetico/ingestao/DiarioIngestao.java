@@ -0,0 +1,146 @@
+package br.com.fiap.consumoenergetico.ingestao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// arquivo local append-only (NDJSON) com as leituras aceitas ("A"), as já gravadas ("C") e as
+// registradas mas recusadas pela fila ("D"); na subida, o que foi aceito e não confirmado volta para a fila
+class DiarioIngestao implements Closeable {
+
+    private static final String ACEITA = "A";
+    private static final String CONFIRMADA = "C";
+    private static final String DESFEITA = "D";
+
+    record Registro(String tipo, String rastreio, Double qtdConsumo, LocalDate data, String unidade) { }
+
+    private final Path arquivo;
+    private final ObjectMapper mapper;
+    private final boolean sincronizar;
+    private FileChannel canal;
+
+    DiarioIngestao(Path arquivo, ObjectMapper mapper, boolean sincronizar) {
+        this.arquivo = arquivo;
+        this.mapper = mapper;
+        this.sincronizar = sincronizar;
+    }
+
+    // lê o diário, reescreve só o que está pendente e deixa o arquivo aberto para append
+    synchronized List<LeituraPendente> abrir() throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        Map<String, LeituraPendente> pendentes = new LinkedHashMap<>();
+        if (Files.exists(arquivo)) {
+            try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                String linha;
+                while ((linha = leitor.readLine()) != null) {
+                    if (linha.isBlank()) {
+                        continue;
+                    }
+                    Registro registro;
+                    try {
+                        registro = mapper.readValue(linha, Registro.class);
+                    } catch (IOException e) {
+                        continue; // última linha truncada por uma queda no meio da escrita
+                    }
+                    if (ACEITA.equals(registro.tipo())) {
+                        pendentes.put(registro.rastreio(), new LeituraPendente(registro.rastreio(),
+                                registro.qtdConsumo(), registro.data(), registro.unidade()));
+                    } else {
+                        pendentes.remove(registro.rastreio());
+                    }
+                }
+            }
+        }
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel compactado = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (LeituraPendente pendente : pendentes.values()) {
+                compactado.write(ByteBuffer.wrap(linhaAceite(pendente)));
+            }
+            compactado.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        canal = FileChannel.open(arquivo, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new ArrayList<>(pendentes.values());
+    }
+
+    synchronized void registrarAceite(LeituraPendente leitura) {
+        escrever(linhaAceite(leitura));
+    }
+
+    synchronized void registrarConfirmacao(Collection<String> rastreios) {
+        StringBuilder linhas = new StringBuilder();
+        for (String rastreio : rastreios) {
+            linhas.append(json(new Registro(CONFIRMADA, rastreio, null, null, null))).append('\n');
+        }
+        escrever(linhas.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // anula um aceite que não chegou à fila
+    synchronized void registrarDesistencia(String rastreio) {
+        escrever((json(new Registro(DESFEITA, rastreio, null, null, null)) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    // chamado quando não há nada pendente: o diário pode recomeçar vazio
+    synchronized void truncar() {
+        try {
+            canal.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (canal != null) {
+            canal.close();
+        }
+    }
+
+    private byte[] linhaAceite(LeituraPendente leitura) {
+        Registro registro = new Registro(ACEITA, leitura.rastreio(), leitura.qtdConsumo(), leitura.data(), leitura.unidade());
+        return (json(registro) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String json(Registro registro) {
+        try {
+            return mapper.writeValueAsString(registro);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escrever(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            if (sincronizar) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
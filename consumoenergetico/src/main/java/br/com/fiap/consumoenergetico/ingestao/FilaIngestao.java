@@ -0,0 +1,214 @@
+package br.com.fiap.consumoenergetico.ingestao;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteItemDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteResultadoDto;
+import br.com.fiap.consumoenergetico.dto.IngestaoStatusDto;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// ingestão write-behind: aceita leituras numa fila limitada (com diário em disco)
+// e um escritor em segundo plano grava em lotes pelo ConsumoService.gravarLote
+@Component
+@ConditionalOnProperty(name = "consumo.ingestao.assincrona.habilitada", havingValue = "true")
+public class FilaIngestao {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaIngestao.class);
+
+    private final BlockingQueue<LeituraPendente> fila;
+    private final DiarioIngestao diario;
+    private final ConsumoService consumoService;
+    private final int tamanhoLote;
+
+    // lote que falhou ao gravar com o banco fora; é retentado antes de drenar mais da fila
+    private final List<LeituraPendente> retentativa = new ArrayList<>();
+
+    private final Cache<String, IngestaoStatusDto> status = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private final Counter gravadas;
+    private final Counter rejeitadas;
+
+    public FilaIngestao(@Value("${consumo.ingestao.capacidade:10000}") int capacidade,
+                        @Value("${consumo.ingestao.tamanho-lote:500}") int tamanhoLote,
+                        @Value("${consumo.ingestao.diario:./dados/ingestao.ndjson}") String arquivoDiario,
+                        @Value("${consumo.ingestao.diario-sincronizar:true}") boolean sincronizar,
+                        ConsumoService consumoService,
+                        ObjectMapper objectMapper,
+                        MeterRegistry registry) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = tamanhoLote;
+        this.consumoService = consumoService;
+        this.diario = new DiarioIngestao(Path.of(arquivoDiario), objectMapper, sincronizar);
+
+        Gauge.builder("consumo.ingestao.fila", fila, BlockingQueue::size)
+                .description("Leituras aceitas aguardando gravação")
+                .register(registry);
+        this.gravadas = Counter.builder("consumo.ingestao.gravadas")
+                .description("Leituras drenadas da fila e gravadas")
+                .register(registry);
+        this.rejeitadas = Counter.builder("consumo.ingestao.rejeitadas")
+                .description("Leituras drenadas da fila e rejeitadas na validação ou na gravação")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void recuperar() throws IOException {
+        List<LeituraPendente> pendentes = diario.abrir();
+        for (LeituraPendente pendente : pendentes) {
+            status.put(pendente.rastreio(), IngestaoStatusDto.pendente(pendente.rastreio()));
+            if (!fila.offer(pendente)) {
+                retentativa.add(pendente);
+            }
+        }
+        if (!pendentes.isEmpty()) {
+            log.info("Ingestão assíncrona: {} leituras recuperadas do diário", pendentes.size());
+        }
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        diario.close();
+    }
+
+    // vazio = fila cheia (o chamador responde 503 com Retry-After). O aceite vai para o diário antes
+    // da fila: o escritor nunca drena (e confirma) uma leitura que o diário ainda não registrou,
+    // então uma queda entre os dois passos não perde nem ressuscita leituras
+    public synchronized Optional<String> aceitar(ConsumoCadastroDto registro) {
+        // só este método enfileira e o escritor só retira: com o lock, haver vaga aqui garante o offer
+        if (fila.remainingCapacity() == 0) {
+            return Optional.empty();
+        }
+        LeituraPendente leitura = new LeituraPendente(UUID.randomUUID().toString(),
+                registro.qtdConsumo(), registro.data(), registro.unidade());
+        diario.registrarAceite(leitura);
+        // o status também antes: depois do offer, o escritor pode já ter marcado GRAVADO
+        status.put(leitura.rastreio(), IngestaoStatusDto.pendente(leitura.rastreio()));
+        if (!fila.offer(leitura)) {
+            status.invalidate(leitura.rastreio());
+            diario.registrarDesistencia(leitura.rastreio());
+            return Optional.empty();
+        }
+        return Optional.of(leitura.rastreio());
+    }
+
+    public Optional<IngestaoStatusDto> status(String rastreio) {
+        return Optional.ofNullable(status.getIfPresent(rastreio));
+    }
+
+    @Scheduled(fixedDelayString = "${consumo.ingestao.intervalo-ms:200}")
+    public void drenar() {
+        while (true) {
+            if (retentativa.isEmpty()) {
+                fila.drainTo(retentativa, tamanhoLote);
+            }
+            if (retentativa.isEmpty()) {
+                return;
+            }
+            try {
+                gravar(retentativa);
+            } catch (RuntimeException e) {
+                if (transitoria(e)) {
+                    log.warn("Ingestão assíncrona: falha ao gravar lote de {} leituras, nova tentativa no próximo ciclo",
+                            retentativa.size(), e);
+                    return;
+                }
+                log.warn("Ingestão assíncrona: falha ao gravar lote de {} leituras, gravando uma a uma",
+                        retentativa.size(), e);
+                if (!gravarUmaAUma(retentativa)) {
+                    return;
+                }
+            }
+            retentativa.clear();
+            truncarDiarioSeVazio();
+        }
+    }
+
+    private void gravar(List<LeituraPendente> lote) {
+        List<ConsumoCadastroDto> registros = lote.stream()
+                .map(leitura -> new ConsumoCadastroDto(leitura.qtdConsumo(), leitura.data(), leitura.unidade()))
+                .toList();
+        ConsumoLoteResultadoDto resultado = consumoService.gravarLote(registros);
+
+        for (ConsumoLoteItemDto item : resultado.itens()) {
+            String rastreio = lote.get(item.indice()).rastreio();
+            String estado = item.aceito() ? "GRAVADO" : "REJEITADO";
+            status.put(rastreio, new IngestaoStatusDto(rastreio, estado, item.id(), item.erros()));
+        }
+        gravadas.increment(resultado.aceitos());
+        rejeitadas.increment(resultado.rejeitados());
+        diario.registrarConfirmacao(lote.stream().map(LeituraPendente::rastreio).toList());
+    }
+
+    // lote que falhou sem ser por indisponibilidade do banco: a leitura que falha sozinha é rejeitada (e
+    // confirmada no diário) para não travar a cabeça da fila. false = o banco caiu no meio; o que sobrou
+    // continua em lote para o próximo ciclo
+    private boolean gravarUmaAUma(List<LeituraPendente> lote) {
+        for (Iterator<LeituraPendente> it = lote.iterator(); it.hasNext(); ) {
+            LeituraPendente leitura = it.next();
+            try {
+                gravar(List.of(leitura));
+            } catch (RuntimeException e) {
+                if (transitoria(e)) {
+                    log.warn("Ingestão assíncrona: falha ao gravar lote de {} leituras, nova tentativa no próximo ciclo",
+                            lote.size(), e);
+                    return false;
+                }
+                log.warn("Ingestão assíncrona: leitura {} rejeitada ({} {} {})", leitura.rastreio(),
+                        leitura.qtdConsumo(), leitura.data(), leitura.unidade(), e);
+                status.put(leitura.rastreio(), new IngestaoStatusDto(leitura.rastreio(), "REJEITADO", null,
+                        Map.of("gravacao", String.valueOf(e.getMessage()))));
+                rejeitadas.increment();
+                diario.registrarConfirmacao(List.of(leitura.rastreio()));
+            }
+            it.remove();
+        }
+        return true;
+    }
+
+    // banco fora ou conexão perdida: repetir o mesmo lote depois resolve
+    private static boolean transitoria(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // mesmo lock do aceitar: nada pode ser aceito entre a verificação e o truncate
+    private synchronized void truncarDiarioSeVazio() {
+        if (fila.isEmpty()) {
+            diario.truncar();
+        }
+    }
+}
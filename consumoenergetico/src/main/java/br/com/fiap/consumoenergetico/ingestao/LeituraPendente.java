@@ -0,0 +1,11 @@
+package br.com.fiap.consumoenergetico.ingestao;
+
+import java.time.LocalDate;
+
+// leitura aceita pela ingestão assíncrona e ainda não gravada em TBL_CONSUMO
+public record LeituraPendente(
+        String rastreio,
+        Double qtdConsumo,
+        LocalDate data,
+        String unidade
+) { }
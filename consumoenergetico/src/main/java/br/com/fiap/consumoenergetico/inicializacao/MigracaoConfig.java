@@ -0,0 +1,22 @@
+package br.com.fiap.consumoenergetico.inicializacao;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// a execução de treino do CDS (Dockerfile.aot) sobe o contexto com -Dspring.context.exit=onRefresh,
+// sem banco disponível no build da imagem: nela as migrações não rodam. Em qualquer outra subida, migra
+@Configuration
+public class MigracaoConfig {
+
+    @Bean
+    public FlywayMigrationStrategy migracao(Environment environment) {
+        boolean treino = "onRefresh".equals(environment.getProperty("spring.context.exit"));
+        return flyway -> {
+            if (!treino) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.fiap.consumoenergetico.job;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+import br.com.fiap.consumoenergetico.dto.CorrecaoNegativosDto;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteradoEvento;
+import br.com.fiap.consumoenergetico.exception.ConsumoConflitoException;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+import br.com.fiap.consumoenergetico.repo.ConsumoRepository;
+import br.com.fiap.consumoenergetico.service.ConsumoDiarioService;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// correção de leituras negativas em lotes: cada lote é um UPDATE/DELETE por conjunto de ids
+// com commit próprio, então a tabela nunca é carregada inteira nem presa em uma transação longa
+@Component
+public class CorrecaoNegativosJob {
+
+    // ultimoId avança pelos candidatos; alterados são só os que ainda estavam negativos sob o lock
+    private record Lote(long ultimoId, List<ConsumoEstadoDto> alterados) { }
+
+    private static final Logger log = LoggerFactory.getLogger(CorrecaoNegativosJob.class);
+
+    // o Oracle limita listas IN a 1000 elementos
+    public static final int TAMANHO_MAXIMO_LOTE = 1000;
+
+    private final ConsumoRepository repo;
+    private final ConsumoDiarioService consumoDiarioService;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final TaskExecutor taskExecutor;
+    private final ApplicationEventPublisher publicador;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+    private final AtomicBoolean cancelamentoSolicitado = new AtomicBoolean(false);
+    private volatile CorrecaoNegativosDto progresso = CorrecaoNegativosDto.ociosa();
+
+    public CorrecaoNegativosJob(ConsumoRepository repo,
+                                ConsumoDiarioService consumoDiarioService,
+                                TransactionTemplate transactionTemplate,
+                                CacheManager cacheManager,
+                                @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                ApplicationEventPublisher publicador) {
+        this.repo = repo;
+        this.consumoDiarioService = consumoDiarioService;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.taskExecutor = taskExecutor;
+        this.publicador = publicador;
+    }
+
+    // modo dry-run: só conta, não altera nada
+    public long contar() {
+        return repo.countByQtdConsumoLessThan(0);
+    }
+
+    public CorrecaoNegativosDto progresso() {
+        return progresso;
+    }
+
+    public CorrecaoNegativosDto cancelar() {
+        if (emExecucao.get()) {
+            cancelamentoSolicitado.set(true);
+        }
+        return progresso;
+    }
+
+    public CorrecaoNegativosDto iniciar(String estrategia, int tamanhoLote) {
+        reservar(estrategia, tamanhoLote);
+        taskExecutor.execute(() -> processar(estrategia, tamanhoLote));
+        return progresso;
+    }
+
+    public CorrecaoNegativosDto executar(String estrategia, int tamanhoLote) {
+        reservar(estrategia, tamanhoLote);
+        processar(estrategia, tamanhoLote);
+        return progresso;
+    }
+
+    private void reservar(String estrategia, int tamanhoLote) {
+        if (tamanhoLote < 1 || tamanhoLote > TAMANHO_MAXIMO_LOTE) {
+            throw new ParametroInvalidoException("tamanhoLote deve estar entre 1 e " + TAMANHO_MAXIMO_LOTE);
+        }
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new ConsumoConflitoException("Correção de negativos já em execução");
+        }
+        cancelamentoSolicitado.set(false);
+        try {
+            progresso = new CorrecaoNegativosDto("EM_EXECUCAO", estrategia, contar(), 0, 0,
+                    LocalDateTime.now(), null, null);
+        } catch (RuntimeException e) {
+            // sem isso a reserva ficaria presa e toda execução seguinte daria 409
+            emExecucao.set(false);
+            throw e;
+        }
+    }
+
+    private void processar(String estrategia, int tamanhoLote) {
+        boolean zerar = "zero".equalsIgnoreCase(estrategia);
+        long processados = 0;
+        int lotes = 0;
+        long ultimoId = 0;
+        try {
+            while (!cancelamentoSolicitado.get()) {
+                long aPartirDe = ultimoId;
+                Lote lote = transactionTemplate.execute(status -> corrigirLote(aPartirDe, tamanhoLote, zerar));
+                if (lote == null) {
+                    break;
+                }
+                ultimoId = lote.ultimoId();
+                processados += lote.alterados().size();
+                lotes++;
+                invalidarCache(lote.alterados());
+
+                progresso = new CorrecaoNegativosDto("EM_EXECUCAO", estrategia, progresso.total(), processados, lotes,
+                        progresso.inicio(), null, null);
+                log.info("Correção de negativos ({}): lote {} concluído, {}/{} leituras",
+                        estrategia, lotes, processados, progresso.total());
+            }
+            String estado = cancelamentoSolicitado.get() ? "CANCELADA" : "CONCLUIDA";
+            progresso = new CorrecaoNegativosDto(estado, estrategia, progresso.total(), processados, lotes,
+                    progresso.inicio(), LocalDateTime.now(), null);
+        } catch (RuntimeException e) {
+            log.error("Correção de negativos interrompida no lote {}", lotes + 1, e);
+            progresso = new CorrecaoNegativosDto("FALHOU", estrategia, progresso.total(), processados, lotes,
+                    progresso.inicio(), LocalDateTime.now(), e.getClass().getSimpleName() + " - " + e.getMessage());
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    // null = não há mais negativos
+    private Lote corrigirLote(long ultimoId, int tamanhoLote, boolean zerar) {
+        List<Long> candidatos = repo.buscarIdsNegativosApos(ultimoId, PageRequest.ofSize(tamanhoLote));
+        if (candidatos.isEmpty()) {
+            return null;
+        }
+        // um candidato corrigido por outra requisição entre as duas consultas fica de fora
+        List<ConsumoEstadoDto> alterados = repo.travarNegativos(candidatos).stream().map(ConsumoEstadoDto::new).toList();
+        Lote lote = new Lote(candidatos.get(candidatos.size() - 1), alterados);
+        if (alterados.isEmpty()) {
+            return lote;
+        }
+
+        List<Long> ids = alterados.stream().map(ConsumoEstadoDto::id).toList();
+        int linhas = zerar ? repo.zerarNegativos(ids) : repo.removerNegativos(ids);
+        if (linhas != ids.size()) {
+            // as linhas estão travadas desde travarNegativos; divergência aqui desfaz o lote
+            throw new IllegalStateException("Lote de negativos alterou " + linhas + " de " + ids.size() + " leituras");
+        }
+
+        // consolidado diário: os dias afetados são recalculados de uma vez, sem delta por leitura
+        consumoDiarioService.recalcular(alterados);
+        for (ConsumoEstadoDto negativo : alterados) {
+            if (zerar) {
+                publicador.publishEvent(new ConsumoAlteradoEvento(negativo, new ConsumoEstadoDto(negativo.id(),
+                        negativo.unidade(), negativo.data(), 0d, negativo.versao() + 1)));
+            } else {
+                publicador.publishEvent(ConsumoAlteradoEvento.remocao(negativo));
+            }
+        }
+        return lote;
+    }
+
+    private void invalidarCache(List<ConsumoEstadoDto> lote) {
+        Cache cache = cacheManager.getCache(ConsumoService.CACHE_CONSUMOS);
+        if (cache != null) {
+            lote.forEach(negativo -> cache.evict(negativo.id()));
+        }
+    }
+}
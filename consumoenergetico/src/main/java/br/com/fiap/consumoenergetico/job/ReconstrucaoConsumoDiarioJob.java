@@ -0,0 +1,30 @@
+package br.com.fiap.consumoenergetico.job;
+
+import br.com.fiap.consumoenergetico.service.ConsumoDiarioService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// backfill do consolidado diário na subida (consumo.rollup.reconstruir-na-inicializacao=true)
+@Component
+@ConditionalOnProperty(name = "consumo.rollup.reconstruir-na-inicializacao", havingValue = "true")
+public class ReconstrucaoConsumoDiarioJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstrucaoConsumoDiarioJob.class);
+
+    private final ConsumoDiarioService consumoDiarioService;
+
+    public ReconstrucaoConsumoDiarioJob(ConsumoDiarioService consumoDiarioService) {
+        this.consumoDiarioService = consumoDiarioService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.currentTimeMillis();
+        int dias = consumoDiarioService.reconstruir();
+        log.info("Consolidado diário reconstruído: {} dias em {} ms", dias, System.currentTimeMillis() - inicio);
+    }
+}
@@ -0,0 +1,199 @@
+package br.com.fiap.consumoenergetico.job;
+
+import br.com.fiap.consumoenergetico.dto.RetencaoResultadoDto;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteracaoEmMassaEvento;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// retenção de TBL_CONSUMO: move os meses anteriores ao horizonte para TBL_CONSUMO_ARQUIVO. No Oracle
+// particionado cada mês sai com EXCHANGE PARTITION para uma tabela de troca (sem undo/redo por linha) e é
+// copiado de lá; nos demais bancos, copiado e apagado com um DELETE por mês. O consolidado diário é mantido.
+@Component
+public class RetencaoConsumoJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RetencaoConsumoJob.class);
+
+    // NOT EXISTS deixa a cópia idempotente: se o descarte falhar no meio, a próxima execução só retoma
+    private static final String ARQUIVAR = """
+            INSERT INTO TBL_CONSUMO_ARQUIVO (ID, QTD_CONSUMO, DATA_CONSUMO, UNIDADE, VERSAO, DATA_ARQUIVAMENTO)
+            SELECT c.ID, c.QTD_CONSUMO, c.DATA_CONSUMO, c.UNIDADE, c.VERSAO, CURRENT_DATE
+              FROM TBL_CONSUMO c
+             WHERE c.DATA_CONSUMO >= ? AND c.DATA_CONSUMO < ?
+               AND NOT EXISTS (SELECT 1 FROM TBL_CONSUMO_ARQUIVO a WHERE a.ID = c.ID)
+            """;
+
+    // só o que já está no arquivo: leitura gravada no mês entre a cópia e o DELETE fica para a próxima execução
+    private static final String DESCARTAR = """
+            DELETE FROM TBL_CONSUMO
+             WHERE DATA_CONSUMO >= ? AND DATA_CONSUMO < ?
+               AND EXISTS (SELECT 1 FROM TBL_CONSUMO_ARQUIVO a WHERE a.ID = TBL_CONSUMO.ID)
+            """;
+
+    // tabela de troca do Oracle: recebe o segmento da partição no EXCHANGE e só é apagada depois da cópia
+    private static final String TROCA = "TBL_CONSUMO_TROCA";
+
+    private static final String ARQUIVAR_TROCA = """
+            INSERT INTO TBL_CONSUMO_ARQUIVO (ID, QTD_CONSUMO, DATA_CONSUMO, UNIDADE, VERSAO, DATA_ARQUIVAMENTO)
+            SELECT t.ID, t.QTD_CONSUMO, t.DATA_CONSUMO, t.UNIDADE, t.VERSAO, CURRENT_DATE
+              FROM TBL_CONSUMO_TROCA t
+             WHERE NOT EXISTS (SELECT 1 FROM TBL_CONSUMO_ARQUIVO a WHERE a.ID = t.ID)
+            """;
+
+    private static final String MESES_ANTERIORES = """
+            SELECT DISTINCT EXTRACT(YEAR FROM DATA_CONSUMO) * 100 + EXTRACT(MONTH FROM DATA_CONSUMO)
+              FROM TBL_CONSUMO
+             WHERE DATA_CONSUMO < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher publicador;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+
+    @Value("${consumo.retencao.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${consumo.retencao.meses:24}")
+    private int mesesPadrao;
+
+    public RetencaoConsumoJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              CacheManager cacheManager, ApplicationEventPublisher publicador) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.publicador = publicador;
+    }
+
+    @Scheduled(cron = "${consumo.retencao.cron:0 30 2 * * *}")
+    public void agendado() {
+        if (habilitada) {
+            executar(mesesPadrao);
+        }
+    }
+
+    public RetencaoResultadoDto executar(int meses) {
+        if (meses < 1) {
+            throw new ParametroInvalidoException("O horizonte de retenção deve ser de pelo menos 1 mês");
+        }
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new IllegalStateException("Retenção já em execução");
+        }
+        try {
+            return processar(YearMonth.now().minusMonths(meses).atDay(1));
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    private RetencaoResultadoDto processar(LocalDate corte) {
+        long inicio = System.currentTimeMillis();
+        boolean particionada = particionada();
+        int arquivados = particionada ? retomarTroca() : 0;
+        List<String> descartados = new ArrayList<>();
+
+        // um mês por vez: transações curtas e, no Oracle, cada faixa lida só da própria partição
+        for (YearMonth mes : mesesAnteriores(corte)) {
+            Date de = Date.valueOf(mes.atDay(1));
+            Date ate = Date.valueOf(mes.plusMonths(1).atDay(1));
+
+            Integer trocados = particionada ? trocarParticao(de) : null;
+            if (trocados != null) {
+                arquivados += trocados;
+            } else {
+                arquivados += transactionTemplate.execute(status -> jdbcTemplate.update(ARQUIVAR, de, ate));
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DESCARTAR, de, ate));
+            }
+            descartados.add(mes.toString());
+        }
+
+        if (!descartados.isEmpty()) {
+            // ids arquivados não podem continuar respondendo pelo cache
+            Cache cache = cacheManager.getCache(ConsumoService.CACHE_CONSUMOS);
+            if (cache != null) {
+                cache.clear();
+            }
+            publicador.publishEvent(new ConsumoAlteracaoEmMassaEvento("retencao"));
+        }
+
+        RetencaoResultadoDto resultado = new RetencaoResultadoDto(corte, arquivados, descartados, particionada,
+                System.currentTimeMillis() - inicio);
+        log.info("Retenção até {}: {} leituras arquivadas, meses descartados {} ({} ms)",
+                corte, arquivados, descartados, resultado.duracaoMs());
+        return resultado;
+    }
+
+    private List<YearMonth> mesesAnteriores(LocalDate corte) {
+        return jdbcTemplate.queryForList(MESES_ANTERIORES, Integer.class, Date.valueOf(corte)).stream()
+                .map(anoMes -> YearMonth.of(anoMes / 100, anoMes % 100))
+                .sorted()
+                .toList();
+    }
+
+    // DDL no Oracle faz commit implícito, por isso roda fora do TransactionTemplate. O EXCHANGE é atômico:
+    // leitura gravada no mês depois dele fica na partição (vazia, sem segmento) e sai na próxima execução.
+    // Os índices globais (PK e chaves únicas) são mantidos no EXCHANGE; os locais da partição, refeitos vazios.
+    // null = troca recusada, o mês segue pela cópia + DELETE
+    private Integer trocarParticao(Date mes) {
+        jdbcTemplate.execute("CREATE TABLE " + TROCA + " FOR EXCHANGE WITH TABLE TBL_CONSUMO");
+        try {
+            jdbcTemplate.execute("ALTER TABLE TBL_CONSUMO EXCHANGE PARTITION FOR (DATE '" + mes
+                    + "') WITH TABLE " + TROCA + " UPDATE GLOBAL INDEXES");
+        } catch (DataAccessException e) {
+            jdbcTemplate.execute("DROP TABLE " + TROCA + " PURGE");
+            log.warn("EXCHANGE PARTITION para {} falhou, usando cópia e DELETE: {}", mes, e.getMessage());
+            return null;
+        }
+        jdbcTemplate.execute("ALTER TABLE TBL_CONSUMO MODIFY PARTITION FOR (DATE '" + mes
+                + "') REBUILD UNUSABLE LOCAL INDEXES");
+        return arquivarTroca();
+    }
+
+    // tabela de troca que sobrou de uma execução interrompida: as leituras dela já saíram de TBL_CONSUMO
+    private int retomarTroca() {
+        Integer existe = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM USER_TABLES WHERE TABLE_NAME = '" + TROCA + "'", Integer.class);
+        return existe != null && existe > 0 ? arquivarTroca() : 0;
+    }
+
+    // se a cópia falhar a tabela de troca fica, e a próxima execução retoma dela
+    private int arquivarTroca() {
+        int arquivados = transactionTemplate.execute(status -> jdbcTemplate.update(ARQUIVAR_TROCA));
+        jdbcTemplate.execute("DROP TABLE " + TROCA + " PURGE");
+        return arquivados;
+    }
+
+    private boolean particionada() {
+        try {
+            String produto = jdbcTemplate.execute((Connection conexao) ->
+                    conexao.getMetaData().getDatabaseProductName());
+            if (produto == null || !produto.toLowerCase().contains("oracle")) {
+                return false;
+            }
+            return "YES".equals(jdbcTemplate.queryForObject(
+                    "SELECT PARTITIONED FROM USER_TABLES WHERE TABLE_NAME = 'TBL_CONSUMO'", String.class));
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.consumoenergetico.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// conta os comandos SQL preparados pela thread atual; zerado e lido a cada requisição.
+// Cobre o Hibernate (StatementInspector) e o JdbcTemplate (MetricasConfig.jdbcTemplate)
+public class ContadorStatements implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        contar();
+        return sql;
+    }
+
+    public static void contar() {
+        CONTADOR.get()[0]++;
+    }
+
+    public static void zerar() {
+        CONTADOR.get()[0] = 0;
+    }
+
+    public static int total() {
+        return CONTADOR.get()[0];
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.fiap.consumoenergetico.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry registry;
+
+    public MetricasConfig(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // habilita @Timed nos services (timer consumo.service, tags class/method)
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(registry);
+    }
+
+    // substitui o JdbcTemplate do Spring Boot: os comandos dele (MERGE idempotente, upsert do consolidado
+    // diário) não passam pelo StatementInspector do Hibernate e sumiriam do consumo.sql.statements
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource) {
+            @Override
+            protected void applyStatementSettings(Statement statement) throws SQLException {
+                ContadorStatements.contar();
+                super.applyStatementSettings(statement);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new StatementsPorRequisicaoInterceptor(registry)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.fiap.consumoenergetico.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// publica consumo.sql.statements: quantos comandos SQL cada endpoint executou por requisição.
+// O contador é por thread, então requisições assíncronas (SSE, Callable, DeferredResult) ficam de fora:
+// o trabalho delas roda em outras threads e o redespacho ASYNC zeraria e gravaria uma contagem parcial
+public class StatementsPorRequisicaoInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry registry;
+
+    public StatementsPorRequisicaoInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            ContadorStatements.zerar();
+        }
+        return true;
+    }
+
+    // com o processamento assíncrono iniciado o afterCompletion deste despacho não é chamado; nada a gravar
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return;
+        }
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("consumo.sql.statements")
+                .description("Comandos SQL executados por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                .register(registry)
+                .record(ContadorStatements.total());
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.fiap.consumoenergetico.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// leituras que saíram de TBL_CONSUMO pela retenção; só é escrita pelo RetencaoConsumoJob
+@Entity
+@Table(name = "TBL_CONSUMO_ARQUIVO")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsumoArquivado {
+
+    @Id
+    private Long id;
+
+    @Column(name = "QTD_CONSUMO")
+    private double qtdConsumo;
+
+    @Column(name = "DATA_CONSUMO")
+    private LocalDate data;
+
+    private String unidade;
+
+    @Column(name = "VERSAO")
+    private long versao;
+
+    @Column(name = "DATA_ARQUIVAMENTO")
+    private LocalDate dataArquivamento;
+}
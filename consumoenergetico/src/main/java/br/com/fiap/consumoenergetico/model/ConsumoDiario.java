@@ -0,0 +1,35 @@
+package br.com.fiap.consumoenergetico.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// consolidado diário por unidade, mantido incrementalmente a cada gravação em TBL_CONSUMO
+@Entity
+@Table(name = "TBL_CONSUMO_DIARIO")
+@IdClass(ConsumoDiarioId.class)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsumoDiario {
+
+    @Id
+    private String unidade;
+
+    @Id
+    @Column(name = "DIA")
+    private LocalDate dia;
+
+    private double soma;
+
+    private long contagem;
+
+    private double minimo;
+
+    private double maximo;
+}
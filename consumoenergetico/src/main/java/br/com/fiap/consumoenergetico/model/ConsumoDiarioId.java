@@ -0,0 +1,20 @@
+package br.com.fiap.consumoenergetico.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsumoDiarioId implements Serializable {
+
+    private String unidade;
+
+    private LocalDate dia;
+}
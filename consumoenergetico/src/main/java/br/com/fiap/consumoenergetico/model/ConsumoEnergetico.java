@@ -10,7 +10,14 @@ import jakarta.validation.constraints.PositiveOrZero;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "TBL_CONSUMO")
+@Table(name = "TBL_CONSUMO", indexes = {
+        @Index(name = "IDX_CONSUMO_DATA_ID", columnList = "DATA_CONSUMO, ID"),
+        @Index(name = "IDX_CONSUMO_UNIDADE_DATA_QTD", columnList = "UNIDADE, DATA_CONSUMO, QTD_CONSUMO"),
+        @Index(name = "IDX_CONSUMO_DATA_QTD_UNIDADE", columnList = "DATA_CONSUMO, QTD_CONSUMO, UNIDADE"),
+        @Index(name = "IDX_CONSUMO_QTD", columnList = "QTD_CONSUMO"),
+        @Index(name = "UX_CONSUMO_CHAVE_IDEMPOTENCIA", columnList = "CHAVE_IDEMPOTENCIA", unique = true),
+        @Index(name = "UX_CONSUMO_CHAVE_CLIENTE", columnList = "CHAVE_CLIENTE", unique = true)
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -23,7 +30,7 @@ public class ConsumoEnergetico {
     @SequenceGenerator(
             name = "SEQ_CONSUMO",
             sequenceName = "SEQ_CONSUMO",
-            allocationSize = 1)
+            allocationSize = 50) // precisa acompanhar o INCREMENT BY da SEQ_CONSUMO (V2)
     private Long id;
 
     @Column(name = "QTD_CONSUMO")
@@ -34,4 +41,18 @@ public class ConsumoEnergetico {
     private LocalDate data;
 
     private String unidade;
+
+    @Version
+    @Column(name = "VERSAO")
+    private Long versao;
+
+    // "unidade|data", só nas gravações idempotentes (ConsumoService.gravarIdempotente / gravarLoteIdempotente);
+    // o índice único faz dela a unicidade do par entre as linhas idempotentes. Quem a mantém em dia numa
+    // correção é o ConsumoRepo.atualizarSeVersao
+    @Column(name = "CHAVE_IDEMPOTENCIA", length = 200, updatable = false)
+    private String chaveIdempotencia;
+
+    // Idempotency-Key enviada pelo cliente, quando houver
+    @Column(name = "CHAVE_CLIENTE", length = 150, updatable = false)
+    private String chaveCliente;
 }
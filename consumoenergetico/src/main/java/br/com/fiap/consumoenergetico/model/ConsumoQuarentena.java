@@ -0,0 +1,48 @@
+package br.com.fiap.consumoenergetico.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// leitura barrada (ESTADO = QUARENTENA, não entrou em TBL_CONSUMO) ou só sinalizada (SINALIZADO)
+@Entity
+@Table(name = "TBL_CONSUMO_QUARENTENA", indexes = {
+        @Index(name = "IDX_QUARENTENA_MOTIVO_REGISTRO", columnList = "MOTIVO, DATA_REGISTRO")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsumoQuarentena {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE,
+            generator = "SEQ_CONSUMO_QUARENTENA")
+    @SequenceGenerator(
+            name = "SEQ_CONSUMO_QUARENTENA",
+            sequenceName = "SEQ_CONSUMO_QUARENTENA",
+            allocationSize = 50) // INCREMENT BY da SEQ_CONSUMO_QUARENTENA (V10)
+    private Long id;
+
+    @Column(name = "QTD_CONSUMO")
+    private double qtdConsumo;
+
+    @Column(name = "DATA_CONSUMO")
+    private LocalDate data;
+
+    private String unidade;
+
+    private String motivo;
+
+    private String detalhe;
+
+    private String estado;
+
+    @Column(name = "DATA_REGISTRO")
+    private LocalDateTime dataRegistro;
+}
@@ -0,0 +1,23 @@
+package br.com.fiap.consumoenergetico.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// linha de trava por unidade (V13), lida e criada só por ConsumoTravaRepo; a entidade existe para o
+// create-drop do perfil de teste
+@Entity
+@Table(name = "TBL_CONSUMO_TRAVA")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsumoTrava {
+
+    @Id
+    private String unidade;
+}
@@ -0,0 +1,82 @@
+package br.com.fiap.consumoenergetico.repo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.model.ConsumoDiario;
+import br.com.fiap.consumoenergetico.model.ConsumoDiarioId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ConsumoDiarioRepo extends JpaRepository<ConsumoDiario, ConsumoDiarioId> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from ConsumoDiario d where d.unidade = :unidade and d.dia = :dia")
+    Optional<ConsumoDiario> buscarParaAtualizar(@Param("unidade") String unidade, @Param("dia") LocalDate dia);
+
+    // recálculo de dias inteiros a partir de TBL_CONSUMO (correções em massa): unidades x dias vão pelos índices
+    // e o filtro por chave "unidade|dia" descarta os pares do produto que não foram pedidos
+    @Query(value = "SELECT UNIDADE FROM TBL_CONSUMO_DIARIO WHERE UNIDADE IN (:unidades) AND DIA IN (:dias) " +
+            "AND UNIDADE || '|' || TO_CHAR(DIA, 'YYYY-MM-DD') IN (:chaves) ORDER BY UNIDADE, DIA FOR UPDATE", nativeQuery = true)
+    List<String> travarChaves(@Param("unidades") Collection<String> unidades, @Param("dias") Collection<LocalDate> dias,
+                              @Param("chaves") Collection<String> chaves);
+
+    // devolve quantos dias ainda têm leituras; os que ficaram vazios ficam para apagarDiasVazios
+    @Modifying
+    @Query(value = "MERGE INTO TBL_CONSUMO_DIARIO d " +
+            "USING (SELECT c.UNIDADE, c.DATA_CONSUMO AS DIA, SUM(c.QTD_CONSUMO) AS SOMA, COUNT(*) AS CONTAGEM, " +
+            "              MIN(c.QTD_CONSUMO) AS MINIMO, MAX(c.QTD_CONSUMO) AS MAXIMO " +
+            "         FROM TBL_CONSUMO c " +
+            "        WHERE c.UNIDADE IN (:unidades) AND c.DATA_CONSUMO IN (:dias) " +
+            "          AND c.UNIDADE || '|' || TO_CHAR(c.DATA_CONSUMO, 'YYYY-MM-DD') IN (:chaves) " +
+            "        GROUP BY c.UNIDADE, c.DATA_CONSUMO) s " +
+            "   ON (d.UNIDADE = s.UNIDADE AND d.DIA = s.DIA) " +
+            " WHEN MATCHED THEN UPDATE SET d.SOMA = s.SOMA, d.CONTAGEM = s.CONTAGEM, d.MINIMO = s.MINIMO, d.MAXIMO = s.MAXIMO " +
+            " WHEN NOT MATCHED THEN INSERT (UNIDADE, DIA, SOMA, CONTAGEM, MINIMO, MAXIMO) " +
+            "      VALUES (s.UNIDADE, s.DIA, s.SOMA, s.CONTAGEM, s.MINIMO, s.MAXIMO)", nativeQuery = true)
+    int recalcularChaves(@Param("unidades") Collection<String> unidades, @Param("dias") Collection<LocalDate> dias,
+                         @Param("chaves") Collection<String> chaves);
+
+    @Modifying
+    @Query(value = "DELETE FROM TBL_CONSUMO_DIARIO d WHERE d.UNIDADE IN (:unidades) AND d.DIA IN (:dias) " +
+            "AND d.UNIDADE || '|' || TO_CHAR(d.DIA, 'YYYY-MM-DD') IN (:chaves) " +
+            "AND NOT EXISTS (SELECT 1 FROM TBL_CONSUMO c WHERE c.UNIDADE = d.UNIDADE AND c.DATA_CONSUMO = d.DIA)", nativeQuery = true)
+    int apagarDiasVazios(@Param("unidades") Collection<String> unidades, @Param("dias") Collection<LocalDate> dias,
+                         @Param("chaves") Collection<String> chaves);
+
+    @Modifying
+    @Query(value = "DELETE FROM TBL_CONSUMO_DIARIO", nativeQuery = true)
+    void apagarTudo();
+
+    @Modifying
+    @Query(value = "INSERT INTO TBL_CONSUMO_DIARIO (UNIDADE, DIA, SOMA, CONTAGEM, MINIMO, MAXIMO) " +
+            "SELECT UNIDADE, DATA_CONSUMO, SUM(QTD_CONSUMO), COUNT(*), MIN(QTD_CONSUMO), MAX(QTD_CONSUMO) " +
+            "FROM TBL_CONSUMO GROUP BY UNIDADE, DATA_CONSUMO", nativeQuery = true)
+    int consolidarTudo();
+
+    // agregações lidas do consolidado: custo proporcional a dias, não a leituras
+    @Query("select new br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto(" +
+            "d.unidade, sum(d.soma), sum(d.soma) / sum(d.contagem), min(d.minimo), max(d.maximo), sum(d.contagem)) " +
+            "from ConsumoDiario d where d.dia between :de and :ate " +
+            "group by d.unidade order by d.unidade")
+    List<ConsumoAgregadoDto> agregarPorUnidade(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("select new br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto(" +
+            "d.dia, sum(d.soma), sum(d.soma) / sum(d.contagem), min(d.minimo), max(d.maximo), sum(d.contagem)) " +
+            "from ConsumoDiario d where d.dia between :de and :ate " +
+            "group by d.dia order by d.dia")
+    List<ConsumoAgregadoDto> agregarPorDia(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("select new br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto(" +
+            "year(d.dia), month(d.dia), sum(d.soma), sum(d.soma) / sum(d.contagem), min(d.minimo), max(d.maximo), sum(d.contagem)) " +
+            "from ConsumoDiario d where d.dia between :de and :ate " +
+            "group by year(d.dia), month(d.dia) order by year(d.dia), month(d.dia)")
+    List<ConsumoAgregadoDto> agregarPorMes(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+}
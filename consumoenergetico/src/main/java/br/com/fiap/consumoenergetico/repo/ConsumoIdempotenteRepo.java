@@ -0,0 +1,100 @@
+package br.com.fiap.consumoenergetico.repo;
+
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+// MERGE insert-only por (UNIDADE, DATA_CONSUMO) entre as linhas idempotentes: um único comando, atômico
+// contra gravações concorrentes do mesmo par (o índice único UX_CONSUMO_CHAVE_IDEMPOTENCIA, sobre
+// "unidade|data", decide). Sintaxe aceita pelo Oracle e pelo H2 em modo Oracle. O id sai de um bloco
+// da SEQ_CONSUMO reservado por esta instância
+@Repository
+public class ConsumoIdempotenteRepo {
+
+    private static final String INSERIR_SE_AUSENTE = """
+            MERGE INTO TBL_CONSUMO t
+            USING (SELECT CAST(? AS VARCHAR2(100)) AS UNIDADE, CAST(? AS DATE) AS DATA_CONSUMO FROM DUAL) s
+               ON (t.UNIDADE = s.UNIDADE AND t.DATA_CONSUMO = s.DATA_CONSUMO AND t.CHAVE_IDEMPOTENCIA IS NOT NULL)
+             WHEN NOT MATCHED THEN
+                  INSERT (ID, QTD_CONSUMO, DATA_CONSUMO, UNIDADE, VERSAO, CHAVE_IDEMPOTENCIA, CHAVE_CLIENTE)
+                  VALUES (?, ?, s.DATA_CONSUMO, s.UNIDADE, 0, ?, ?)
+            """;
+
+    private static final String RESERVAR_BLOCO = "SELECT SEQ_CONSUMO.NEXTVAL FROM DUAL";
+
+    // mesmo INCREMENT BY da SEQ_CONSUMO (V2) e allocationSize da entidade: cada NEXTVAL reserva o bloco
+    // (valor - 50, valor], a mesma leitura do otimizador "pooled" do Hibernate, então os blocos desta
+    // instância, do Hibernate e das outras instâncias do cluster nunca se sobrepõem. Como no pooled, um
+    // valor abaixo de 50 (sequence nova, START WITH 1) é o início do bloco e o NEXTVAL seguinte, o fim
+    private static final int BLOCO_IDS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private long proximoId;
+    private long ultimoIdDoBloco = -1;
+
+    public ConsumoIdempotenteRepo(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 1 = inserida, 0 = o par (ou a chave do cliente) já existia. Dois MERGEs concorrentes do mesmo par
+    // podem ambos não encontrá-lo; o índice único barra o segundo, que é tratado como "já existia"
+    // (no Oracle e no H2 a falha desfaz só o comando, não a transação)
+    public int inserirSeAusente(ConsumoEnergetico consumo) {
+        try {
+            return jdbcTemplate.update(INSERIR_SE_AUSENTE, consumo.getUnidade(), Date.valueOf(consumo.getData()),
+                    proximoId(), consumo.getQtdConsumo(), consumo.getChaveIdempotencia(), consumo.getChaveCliente());
+        } catch (DuplicateKeyException e) {
+            return 0;
+        }
+    }
+
+    // um executeBatch; contagem por linha como em inserirSeAusente (alguns drivers devolvem
+    // Statement.SUCCESS_NO_INFO). Colisão com uma gravação concorrente dos mesmos pares sobe como
+    // DuplicateKeyException: parte do lote pode já ter sido aplicada, então a transação deve ser desfeita
+    public int[] inserirSeAusenteEmLote(List<ConsumoEnergetico> consumos) {
+        // ids separados antes do executeBatch, para o NEXTVAL não intercalar com o lote
+        long[] ids = new long[consumos.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = proximoId();
+        }
+        return jdbcTemplate.batchUpdate(INSERIR_SE_AUSENTE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ConsumoEnergetico consumo = consumos.get(i);
+                ps.setString(1, consumo.getUnidade());
+                ps.setDate(2, Date.valueOf(consumo.getData()));
+                ps.setLong(3, ids[i]);
+                ps.setDouble(4, consumo.getQtdConsumo());
+                ps.setString(5, consumo.getChaveIdempotencia());
+                ps.setString(6, consumo.getChaveCliente());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.length;
+            }
+        });
+    }
+
+    // um NEXTVAL a cada 50 inserções; ids de MERGEs que encontraram o par ficam sem uso
+    private synchronized long proximoId() {
+        if (proximoId > ultimoIdDoBloco) {
+            long valor = jdbcTemplate.queryForObject(RESERVAR_BLOCO, Long.class);
+            if (valor < BLOCO_IDS) {
+                proximoId = valor;
+                ultimoIdDoBloco = jdbcTemplate.queryForObject(RESERVAR_BLOCO, Long.class);
+            } else {
+                proximoId = valor - BLOCO_IDS + 1;
+                ultimoIdDoBloco = valor;
+            }
+        }
+        return proximoId++;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.fiap.consumoenergetico.repo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// listagem filtrada (Specification) projetada direto no ConsumoExibicaoDto; o findAll(spec, pageable)
+// do JpaSpecificationExecutor só sabe devolver entidades gerenciadas
+@Repository
+public class ConsumoProjecaoRepo {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Page<ConsumoExibicaoDto> listar(Specification<ConsumoEnergetico> filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ConsumoExibicaoDto> consulta = cb.createQuery(ConsumoExibicaoDto.class);
+        Root<ConsumoEnergetico> c = consulta.from(ConsumoEnergetico.class);
+        consulta.select(cb.construct(ConsumoExibicaoDto.class,
+                c.get("id"), c.get("qtdConsumo"), c.get("data"), c.get("unidade"), c.get("versao")));
+        consulta.where(filtro.toPredicate(c, consulta, cb));
+        consulta.orderBy(QueryUtils.toOrders(pageable.getSort(), c, cb));
+
+        TypedQuery<ConsumoExibicaoDto> query = entityManager.createQuery(consulta)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, "MANUAL");
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<ConsumoExibicaoDto> conteudo = query.getResultList();
+        // o count só roda quando a página não basta para deduzir o total
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(filtro));
+    }
+
+    private long contar(Specification<ConsumoEnergetico> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        Root<ConsumoEnergetico> c = consulta.from(ConsumoEnergetico.class);
+        consulta.select(cb.count(c));
+        consulta.where(filtro.toPredicate(c, consulta, cb));
+        return entityManager.createQuery(consulta)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, "MANUAL")
+                .getSingleResult();
+    }
+}
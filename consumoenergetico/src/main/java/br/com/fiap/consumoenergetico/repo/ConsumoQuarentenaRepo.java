@@ -0,0 +1,11 @@
+package br.com.fiap.consumoenergetico.repo;
+
+import br.com.fiap.consumoenergetico.model.ConsumoQuarentena;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ConsumoQuarentenaRepo extends JpaRepository<ConsumoQuarentena, Long> {
+
+    Page<ConsumoQuarentena> findByMotivo(String motivo, Pageable pageable);
+}
@@ -1,10 +1,96 @@
 package br.com.fiap.consumoenergetico.repo;
 
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
 import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ConsumoRepo extends JpaRepository<ConsumoEnergetico, Long> {
+public interface ConsumoRepo extends JpaRepository<ConsumoEnergetico, Long>, JpaSpecificationExecutor<ConsumoEnergetico> {
+
+    // caminho de leitura: projeção direta no DTO, sem entidade gerenciada nem snapshot para dirty checking;
+    // FLUSH_MODE MANUAL evita o auto-flush antes de cada consulta
+    String PROJECAO_EXIBICAO = "select new br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto(" +
+            "c.id, c.qtdConsumo, c.data, c.unidade, c.versao) from ConsumoEnergetico c ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(value = PROJECAO_EXIBICAO, countQuery = "select count(c) from ConsumoEnergetico c")
+    Page<ConsumoExibicaoDto> listarExibicao(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(PROJECAO_EXIBICAO + "where c.id = :id")
+    Optional<ConsumoExibicaoDto> buscarExibicao(@Param("id") Long id);
+
+    // cursor forward-only para exportação; precisa de transação aberta enquanto o Stream é consumido
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(PROJECAO_EXIBICAO + "order by c.id")
+    Stream<ConsumoExibicaoDto> streamTodos();
+
+    // paginação por chave (DATA_CONSUMO, ID): retorno em List não dispara count,
+    // e o Pageable só limita as linhas (sempre página 0, sem OFFSET)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(PROJECAO_EXIBICAO + "order by c.data, c.id")
+    List<ConsumoExibicaoDto> buscarPrimeiros(Pageable limite);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(PROJECAO_EXIBICAO +
+            "where c.data > :data or (c.data = :data and c.id > :id) " +
+            "order by c.data, c.id")
+    List<ConsumoExibicaoDto> buscarApos(@Param("data") LocalDate data, @Param("id") Long id, Pageable limite);
+
+    // recalcula um único dia de uma unidade a partir das leituras (usa o índice UNIDADE, DATA_CONSUMO, QTD_CONSUMO)
+    @Query("select new br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto(" +
+            "c.unidade, sum(c.qtdConsumo), avg(c.qtdConsumo), min(c.qtdConsumo), max(c.qtdConsumo), count(c)) " +
+            "from ConsumoEnergetico c where c.unidade = :unidade and c.data = :dia group by c.unidade")
+    Optional<ConsumoAgregadoDto> agregarDia(@Param("unidade") String unidade, @Param("dia") LocalDate dia);
+
+    @Query("select new br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto(c.id, c.unidade, c.data, c.qtdConsumo, c.versao) " +
+            "from ConsumoEnergetico c where c.id = :id")
+    Optional<ConsumoEstadoDto> buscarEstado(@Param("id") Long id);
+
+    // escrita em um único comando, condicionada à versão lida (sem SELECT do merge). Numa linha idempotente
+    // a chave "unidade|data" acompanha a unidade e a data novas
+    @Modifying
+    @Query("update ConsumoEnergetico c set c.qtdConsumo = :qtdConsumo, c.data = :data, c.unidade = :unidade, " +
+            "c.chaveIdempotencia = case when c.chaveIdempotencia is not null then :chaveIdempotencia end, " +
+            "c.versao = c.versao + 1 where c.id = :id and c.versao = :versao")
+    int atualizarSeVersao(@Param("id") Long id, @Param("qtdConsumo") double qtdConsumo, @Param("data") LocalDate data,
+                          @Param("unidade") String unidade, @Param("chaveIdempotencia") String chaveIdempotencia,
+                          @Param("versao") Long versao);
+
+    @Modifying
+    @Query("delete from ConsumoEnergetico c where c.id = :id and c.versao = :versao")
+    int removerSeVersao(@Param("id") Long id, @Param("versao") Long versao);
+
+    // checagem de duplicidade da etapa de anomalias, uma consulta por bloco (coberta pelo IDX_CONSUMO_UNIDADE_DATA_QTD);
+    // o produto unidades x datas pode trazer pares que não estão no bloco, o filtro exato fica com quem chama
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("select distinct new br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto(c.unidade, c.data) " +
+            "from ConsumoEnergetico c where c.unidade in :unidades and c.data in :datas")
+    List<ConsumoEstadoDto> buscarUnidadesEDatas(@Param("unidades") Collection<String> unidades,
+                                                @Param("datas") Collection<LocalDate> datas);
+
+    Optional<ConsumoEnergetico> findByChaveIdempotencia(String chaveIdempotencia);
+
+    Optional<ConsumoEnergetico> findByChaveCliente(String chaveCliente);
+
+    List<ConsumoEnergetico> findByChaveIdempotenciaIn(Collection<String> chaves);
 }
@@ -1,6 +1,8 @@
 package br.com.fiap.consumoenergetico.repo;
 
 import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,4 +17,25 @@ import java.util.List;
 @Repository
 public interface ConsumoRepository extends JpaRepository<ConsumoEnergetico, Long> {
     List<ConsumoEnergetico> findByQtdConsumoLessThan(double valor);
+
+    long countByQtdConsumoLessThan(double valor);
+
+    // próximo lote de negativos por chave (id), sem carregar entidades
+    @Query("select c.id from ConsumoEnergetico c where c.qtdConsumo < 0 and c.id > :ultimoId order by c.id")
+    List<Long> buscarIdsNegativosApos(@Param("ultimoId") Long ultimoId, Pageable limite);
+
+    // trava os que continuam negativos (o Oracle não aceita FOR UPDATE com o FETCH FIRST da consulta acima):
+    // só estes mudam no lote, e com o estado lido aqui
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ConsumoEnergetico c where c.id in :ids and c.qtdConsumo < 0 order by c.id")
+    List<ConsumoEnergetico> travarNegativos(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("update ConsumoEnergetico c set c.qtdConsumo = 0, c.versao = c.versao + 1 " +
+            "where c.id in :ids and c.qtdConsumo < 0")
+    int zerarNegativos(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("delete from ConsumoEnergetico c where c.id in :ids and c.qtdConsumo < 0")
+    int removerNegativos(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,39 @@
+package br.com.fiap.consumoenergetico.repo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoFiltroDto;
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// filtros opcionais da listagem; cada critério vira um predicado de faixa sobre colunas indexadas
+public final class ConsumoSpecs {
+
+    private ConsumoSpecs() {
+    }
+
+    public static Specification<ConsumoEnergetico> filtrar(ConsumoFiltroDto filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.unidade() != null) {
+                predicados.add(cb.equal(root.get("unidade"), filtro.unidade()));
+            }
+            if (filtro.de() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.<LocalDate>get("data"), filtro.de()));
+            }
+            if (filtro.ate() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.<LocalDate>get("data"), filtro.ate()));
+            }
+            if (filtro.min() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.<Double>get("qtdConsumo"), filtro.min()));
+            }
+            if (filtro.max() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.<Double>get("qtdConsumo"), filtro.max()));
+            }
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+}
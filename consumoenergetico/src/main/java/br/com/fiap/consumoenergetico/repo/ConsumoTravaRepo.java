@@ -0,0 +1,45 @@
+package br.com.fiap.consumoenergetico.repo;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+// trava de escrita por unidade em TBL_CONSUMO_TRAVA. Diferente das linhas de TBL_CONSUMO_DIARIO, a linha
+// da unidade sempre existe quando o FOR UPDATE roda: é criada antes, se preciso, por um MERGE só de INSERT.
+// Via JdbcTemplate pelo mesmo motivo de ConsumoDiarioMergeRepo (a chave duplicada não pode marcar rollback)
+@Repository
+public class ConsumoTravaRepo {
+
+    private static final String CRIAR = """
+            MERGE INTO TBL_CONSUMO_TRAVA t
+            USING (SELECT CAST(? AS VARCHAR2(100)) AS UNIDADE FROM DUAL) s
+               ON (t.UNIDADE = s.UNIDADE)
+             WHEN NOT MATCHED THEN
+                  INSERT (UNIDADE) VALUES (s.UNIDADE)
+            """;
+
+    private static final String TRAVAR = "SELECT UNIDADE FROM TBL_CONSUMO_TRAVA WHERE UNIDADE = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConsumoTravaRepo(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // em ordem alfabética, para dois blocos com unidades em comum não travarem em ordens opostas (deadlock).
+    // Duas transações criando a mesma unidade: a segunda espera o commit da primeira, recebe a chave
+    // duplicada e a repetição encontra a linha
+    public void travar(Collection<String> unidades) {
+        for (String unidade : new TreeSet<>(unidades)) {
+            try {
+                jdbcTemplate.update(CRIAR, unidade);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(CRIAR, unidade);
+            }
+            jdbcTemplate.queryForList(TRAVAR, String.class, unidade);
+        }
+    }
+}
@@ -2,10 +2,13 @@ package br.com.fiap.consumoenergetico.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 
+// no perfil "test" vale só o TestSecurityConfig: uma cadeia de filtros a menos para montar na subida
 @Configuration
+@Profile("!test")
 public class SecurityConfig {
 
     @Bean
@@ -0,0 +1,183 @@
+package br.com.fiap.consumoenergetico.service;
+
+import br.com.fiap.consumoenergetico.anomalia.Anomalia;
+import br.com.fiap.consumoenergetico.anomalia.EstatisticaUnidade;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoQuarentenaDto;
+import br.com.fiap.consumoenergetico.model.ConsumoQuarentena;
+import br.com.fiap.consumoenergetico.repo.ConsumoQuarentenaRepo;
+import br.com.fiap.consumoenergetico.repo.ConsumoRepo;
+import br.com.fiap.consumoenergetico.repo.ConsumoTravaRepo;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// etapa de triagem na gravação: barra (ou só sinaliza) leituras negativas, duplicadas para a mesma
+// unidade e data, ou a mais de k desvios-padrão da média móvel da unidade. Evita as varreduras
+// posteriores da tabela inteira (fix-negativos) para achar esses casos
+@Service
+@Timed("consumo.service")
+public class AnomaliaService {
+
+    @Autowired
+    private ConsumoRepo consumoRepo;
+
+    @Autowired
+    private ConsumoQuarentenaRepo consumoQuarentenaRepo;
+
+    @Autowired
+    private ConsumoTravaRepo consumoTravaRepo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${consumo.anomalia.habilitada:false}")
+    private boolean habilitada;
+
+    // quarentena: a leitura não entra em TBL_CONSUMO; sinalizar: entra e fica registrada na quarentena.
+    // Negativas vão para a quarentena nos dois modos: a validação da entidade (@PositiveOrZero) as recusaria
+    @Value("${consumo.anomalia.acao:quarentena}")
+    private String acao;
+
+    @Value("${consumo.anomalia.k:4}")
+    private double k;
+
+    @Value("${consumo.anomalia.alfa:0.05}")
+    private double alfa;
+
+    @Value("${consumo.anomalia.minimo-amostras:30}")
+    private long minimoAmostras;
+
+    private final Map<String, EstatisticaUnidade> estatisticas = new ConcurrentHashMap<>();
+
+    public boolean habilitada() {
+        return habilitada;
+    }
+
+    // roda dentro da transação da gravação: a quarentena é revertida junto com ela, e a média móvel
+    // só aprende as leituras aceitas depois do commit
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<ConsumoQuarentenaDto> triar(ConsumoCadastroDto registro) {
+        return triarBloco(List.of(registro), null).get(0);
+    }
+
+    // um bloco de leituras já validadas, com uma consulta (IN) para as duplicadas em TBL_CONSUMO;
+    // devolve, na ordem do bloco, a quarentena de cada leitura que não deve ser gravada.
+    // chavesDoLote detecta duplicidade dentro do próprio lote (null fora do /lote)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Optional<ConsumoQuarentenaDto>> triarBloco(List<ConsumoCadastroDto> registros, Set<String> chavesDoLote) {
+        List<Optional<ConsumoQuarentenaDto>> resultado = new ArrayList<>(registros.size());
+        if (!habilitada) {
+            registros.forEach(registro -> resultado.add(Optional.empty()));
+            return resultado;
+        }
+
+        Set<String> gravadas = chavesGravadas(registros);
+        List<ConsumoCadastroDto> aceitas = new ArrayList<>(registros.size());
+        for (ConsumoCadastroDto registro : registros) {
+            Optional<Anomalia> anomalia = avaliar(registro, gravadas, chavesDoLote);
+            if (anomalia.isEmpty()) {
+                if (chavesDoLote != null) {
+                    chavesDoLote.add(chave(registro));
+                }
+                aceitas.add(registro);
+                resultado.add(Optional.empty());
+                continue;
+            }
+
+            boolean quarentenar = !"sinalizar".equalsIgnoreCase(acao) || "NEGATIVO".equals(anomalia.get().motivo());
+            ConsumoQuarentena quarentena = consumoQuarentenaRepo.save(new ConsumoQuarentena(null, registro.qtdConsumo(),
+                    registro.data(), registro.unidade(), anomalia.get().motivo(), anomalia.get().detalhe(),
+                    quarentenar ? "QUARENTENA" : "SINALIZADO", LocalDateTime.now()));
+            meterRegistry.counter("consumo.anomalias", "motivo", anomalia.get().motivo()).increment();
+            resultado.add(quarentenar ? Optional.of(new ConsumoQuarentenaDto(quarentena)) : Optional.empty());
+        }
+        aprenderAposCommit(aceitas);
+        return resultado;
+    }
+
+    public Page<ConsumoQuarentenaDto> listar(String motivo, Pageable pageable) {
+        Page<ConsumoQuarentena> pagina = motivo == null
+                ? consumoQuarentenaRepo.findAll(pageable)
+                : consumoQuarentenaRepo.findByMotivo(motivo.toUpperCase(), pageable);
+        return pagina.map(ConsumoQuarentenaDto::new);
+    }
+
+    // trava as unidades do bloco antes de consultar: uma escrita concorrente na mesma unidade espera o
+    // commit desta e então já enxerga a leitura gravada aqui, inclusive num dia que ainda não tinha linha
+    private Set<String> chavesGravadas(List<ConsumoCadastroDto> registros) {
+        Set<String> unidades = new HashSet<>();
+        Set<LocalDate> datas = new HashSet<>();
+        for (ConsumoCadastroDto registro : registros) {
+            unidades.add(registro.unidade());
+            datas.add(registro.data());
+        }
+        consumoTravaRepo.travar(unidades);
+        Set<String> chaves = new HashSet<>();
+        for (ConsumoEstadoDto gravada : consumoRepo.buscarUnidadesEDatas(unidades, datas)) {
+            chaves.add(gravada.unidade() + "|" + gravada.data());
+        }
+        return chaves;
+    }
+
+    private void aprenderAposCommit(List<ConsumoCadastroDto> aceitas) {
+        if (aceitas.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (ConsumoCadastroDto registro : aceitas) {
+                    estatisticas.computeIfAbsent(registro.unidade(), unidade -> new EstatisticaUnidade(alfa))
+                            .registrar(registro.qtdConsumo());
+                }
+            }
+        });
+    }
+
+    private Optional<Anomalia> avaliar(ConsumoCadastroDto registro, Set<String> gravadas, Set<String> chavesDoLote) {
+        double valor = registro.qtdConsumo();
+        if (valor < 0) {
+            return Optional.of(new Anomalia("NEGATIVO", "qtdConsumo " + valor));
+        }
+
+        String chave = chave(registro);
+        boolean repetidaNoLote = chavesDoLote != null && chavesDoLote.contains(chave);
+        if (repetidaNoLote || gravadas.contains(chave)) {
+            return Optional.of(new Anomalia("DUPLICADO", "já existe leitura para " + chave));
+        }
+
+        EstatisticaUnidade estatistica = estatisticas.get(registro.unidade());
+        double sigmas = estatistica == null ? Double.NaN : estatistica.sigmas(valor, minimoAmostras);
+        if (sigmas > k) {
+            return Optional.of(new Anomalia("FORA_DO_PADRAO", String.format(Locale.ROOT,
+                    "%.1f desvios da média %.2f (limite %.1f)", sigmas, estatistica.media(), k)));
+        }
+        return Optional.empty();
+    }
+
+    private static String chave(ConsumoCadastroDto registro) {
+        return registro.unidade() + "|" + registro.data();
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.fiap.consumoenergetico.service;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
+import br.com.fiap.consumoenergetico.model.ConsumoDiario;
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import br.com.fiap.consumoenergetico.repo.ConsumoDiarioMergeRepo;
+import br.com.fiap.consumoenergetico.repo.ConsumoDiarioRepo;
+import br.com.fiap.consumoenergetico.repo.ConsumoRepo;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// mantém TBL_CONSUMO_DIARIO em sincronia com TBL_CONSUMO aplicando apenas o delta de cada escrita;
+// deve rodar na mesma transação da escrita em TBL_CONSUMO
+@Service
+@Timed("consumo.service")
+public class ConsumoDiarioService {
+    @Autowired
+    private ConsumoDiarioRepo consumoDiarioRepo;
+
+    @Autowired
+    private ConsumoDiarioMergeRepo consumoDiarioMergeRepo;
+
+    @Autowired
+    private ConsumoRepo consumoRepo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void somar(ConsumoEnergetico consumo){
+        somar(consumo.getUnidade(), consumo.getData(), consumo.getQtdConsumo(), 1,
+                consumo.getQtdConsumo(), consumo.getQtdConsumo());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void somar(String unidade, LocalDate dia, double valor){
+        somar(unidade, dia, valor, 1, valor, valor);
+    }
+
+    // agrupa as leituras por (unidade, dia) antes de aplicar: um MERGE por grupo, não por leitura
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void somarTodos(Collection<ConsumoEnergetico> consumos){
+        Map<String, ConsumoDiario> grupos = new LinkedHashMap<>();
+        for (ConsumoEnergetico consumo : consumos) {
+            double valor = consumo.getQtdConsumo();
+            ConsumoDiario grupo = grupos.computeIfAbsent(consumo.getUnidade() + "|" + consumo.getData(),
+                    chave -> new ConsumoDiario(consumo.getUnidade(), consumo.getData(), 0, 0, valor, valor));
+            grupo.setSoma(grupo.getSoma() + valor);
+            grupo.setContagem(grupo.getContagem() + 1);
+            grupo.setMinimo(Math.min(grupo.getMinimo(), valor));
+            grupo.setMaximo(Math.max(grupo.getMaximo(), valor));
+        }
+        for (ConsumoDiario grupo : grupos.values()) {
+            somar(grupo.getUnidade(), grupo.getDia(), grupo.getSoma(), grupo.getContagem(),
+                    grupo.getMinimo(), grupo.getMaximo());
+        }
+    }
+
+    // a leitura já precisa ter sido removida/alterada em TBL_CONSUMO (o flush é feito aqui)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtrair(String unidade, LocalDate dia, double valor){
+        Optional<ConsumoDiario> consolidadoOptional = consumoDiarioRepo.buscarParaAtualizar(unidade, dia);
+        if (consolidadoOptional.isEmpty()) {
+            return; // dia ainda não consolidado (ex.: antes da reconstrução)
+        }
+        ConsumoDiario consolidado = consolidadoOptional.get();
+        if (consolidado.getContagem() <= 1) {
+            consumoDiarioRepo.delete(consolidado);
+            return;
+        }
+
+        consolidado.setSoma(consolidado.getSoma() - valor);
+        consolidado.setContagem(consolidado.getContagem() - 1);
+        // mínimo/máximo não admitem delta: só recalcula o dia quando o valor removido era um extremo
+        if (valor <= consolidado.getMinimo() || valor >= consolidado.getMaximo()) {
+            consumoRepo.flush();
+            Optional<ConsumoAgregadoDto> recalculado = consumoRepo.agregarDia(unidade, dia);
+            if (recalculado.isPresent()) {
+                consolidado.setMinimo(recalculado.get().minimo());
+                consolidado.setMaximo(recalculado.get().maximo());
+            }
+        }
+    }
+
+    // recalcula do zero os dias das leituras informadas, já alteradas ou removidas em TBL_CONSUMO:
+    // um comando por chamada (mais um DELETE se algum dia ficou sem leituras), não um delta por leitura.
+    // O lock dos consolidados vem antes, para o recálculo enxergar o que escritas concorrentes confirmaram
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recalcular(Collection<ConsumoEstadoDto> leituras){
+        if (leituras.isEmpty()) {
+            return;
+        }
+        Set<String> unidades = new HashSet<>();
+        Set<LocalDate> dias = new HashSet<>();
+        Set<String> chaves = new HashSet<>();
+        for (ConsumoEstadoDto leitura : leituras) {
+            unidades.add(leitura.unidade());
+            dias.add(leitura.data());
+            chaves.add(leitura.unidade() + "|" + leitura.data());
+        }
+        consumoDiarioRepo.travarChaves(unidades, dias, chaves);
+        if (consumoDiarioRepo.recalcularChaves(unidades, dias, chaves) < chaves.size()) {
+            consumoDiarioRepo.apagarDiasVazios(unidades, dias, chaves);
+        }
+    }
+
+    @Transactional
+    public int reconstruir(){
+        consumoDiarioRepo.apagarTudo();
+        return consumoDiarioRepo.consolidarTudo();
+    }
+
+    public List<ConsumoAgregadoDto> agregarPorUnidade(LocalDate de, LocalDate ate){
+        return consumoDiarioRepo.agregarPorUnidade(de, ate);
+    }
+
+    public List<ConsumoAgregadoDto> agregarPorDia(LocalDate de, LocalDate ate){
+        return consumoDiarioRepo.agregarPorDia(de, ate);
+    }
+
+    public List<ConsumoAgregadoDto> agregarPorMes(LocalDate de, LocalDate ate){
+        return consumoDiarioRepo.agregarPorMes(de, ate);
+    }
+
+    // o MERGE vai direto pelo JDBC: o flush antes dele grava o que o subtrair() deixou pendente no mesmo dia
+    private void somar(String unidade, LocalDate dia, double soma, long contagem, double minimo, double maximo){
+        entityManager.flush();
+        consumoDiarioMergeRepo.somar(unidade, dia, soma, contagem, minimo, maximo);
+    }
+}
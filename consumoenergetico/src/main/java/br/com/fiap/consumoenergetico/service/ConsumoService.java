@@ -1,54 +1,572 @@
 package br.com.fiap.consumoenergetico.service;
 
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoCursorDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoEstadoDto;
 import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoFiltroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoGravacaoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteItemDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteResultadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoQuarentenaDto;
+import br.com.fiap.consumoenergetico.evento.ConsumoAlteradoEvento;
+import br.com.fiap.consumoenergetico.exception.ConsumoConflitoException;
 import br.com.fiap.consumoenergetico.exception.ConsumoNaoEncontradoException;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+import br.com.fiap.consumoenergetico.exception.VersaoObrigatoriaException;
 import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import br.com.fiap.consumoenergetico.repo.ConsumoIdempotenteRepo;
+import br.com.fiap.consumoenergetico.repo.ConsumoProjecaoRepo;
 import br.com.fiap.consumoenergetico.repo.ConsumoRepo;
+import br.com.fiap.consumoenergetico.repo.ConsumoSpecs;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("consumo.service")
 public class ConsumoService {
+    public static final String CACHE_CONSUMOS = "consumos";
+
+    // limites usados quando o período da agregação não é informado
+    private static final LocalDate INICIO_PADRAO = LocalDate.of(1900, 1, 1);
+    private static final LocalDate FIM_PADRAO = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private ConsumoRepo consumoRepo;
 
+    @Autowired
+    private ConsumoIdempotenteRepo consumoIdempotenteRepo;
+
+    @Autowired
+    private ConsumoProjecaoRepo consumoProjecaoRepo;
+
+    @Autowired
+    private ConsumoDiarioService consumoDiarioService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher publicador;
+
+    @Autowired
+    private AnomaliaService anomaliaService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // mesmo valor de hibernate.jdbc.batch_size: cada flush vira um executeBatch
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLote;
+
+    @Transactional
+    @CachePut(cacheNames = CACHE_CONSUMOS, key = "#result.id()")
     public ConsumoExibicaoDto gravar(ConsumoEnergetico consumoEnergetico){
-        return new ConsumoExibicaoDto(consumoRepo.save(consumoEnergetico));
+        return inserir(consumoEnergetico);
     }
 
-    public ConsumoExibicaoDto BuscarPorId(long id){
-        Optional<ConsumoEnergetico> consumoOptional = consumoRepo.findById(id);
-        if(consumoOptional.isPresent()){
-            return new ConsumoExibicaoDto(consumoOptional.get());
-        }else {
-            throw new ConsumoNaoEncontradoException("Consumo não encontrado");
+    // triagem de anomalias e gravação na mesma transação: a quarentena não sobra de uma gravação revertida.
+    // O @CachePut guardaria o ConsumoGravacaoDto inteiro; aqui o cache recebe só a leitura gravada
+    @Transactional
+    public ConsumoGravacaoDto gravarTriado(ConsumoCadastroDto dto){
+        Optional<ConsumoQuarentenaDto> quarentena = anomaliaService.triar(dto);
+        if (quarentena.isPresent()) {
+            return ConsumoGravacaoDto.barrado(quarentena.get());
+        }
+        ConsumoEnergetico entidade = entidade(dto);
+        exigirValida(entidade);
+        ConsumoExibicaoDto salvo = inserir(entidade);
+        Cache cache = cacheManager.getCache(CACHE_CONSUMOS);
+        if (cache != null) {
+            cache.put(salvo.id(), salvo);
+        }
+        return ConsumoGravacaoDto.gravado(salvo);
+    }
+
+    private ConsumoExibicaoDto inserir(ConsumoEnergetico consumoEnergetico){
+        ConsumoEnergetico salvo = consumoRepo.save(consumoEnergetico);
+        consumoDiarioService.somar(salvo);
+        publicador.publishEvent(ConsumoAlteradoEvento.inclusao(new ConsumoEstadoDto(salvo)));
+        return new ConsumoExibicaoDto(salvo);
+    }
+
+    private static ConsumoEnergetico entidade(ConsumoCadastroDto registro){
+        ConsumoEnergetico entity = new ConsumoEnergetico();
+        entity.setQtdConsumo(registro.qtdConsumo());
+        entity.setData(registro.data());
+        entity.setUnidade(registro.unidade());
+        return entity;
+    }
+
+    // gravação idempotente por (unidade, data), com a Idempotency-Key do cliente opcional por cima:
+    // uma repetição, com a mesma chave ou com outra, custa só o SELECT e devolve a leitura já gravada;
+    // a primeira gravação passa pela triagem de anomalias e vira um MERGE insert-only
+    @Transactional
+    public ConsumoGravacaoDto gravarIdempotente(ConsumoCadastroDto dto, String chaveCliente){
+        ConsumoEnergetico recebido = entidade(dto);
+        recebido.setChaveIdempotencia(chaveIdempotencia(recebido.getUnidade(), recebido.getData()));
+        recebido.setChaveCliente(chaveCliente(chaveCliente));
+
+        Optional<ConsumoEnergetico> existente = buscarIdempotente(recebido);
+        if (existente.isEmpty()) {
+            Optional<ConsumoQuarentenaDto> quarentena = anomaliaService.triar(dto);
+            if (quarentena.isPresent()) {
+                return ConsumoGravacaoDto.barrado(quarentena.get());
+            }
+            exigirValida(recebido);
+            if (consumoIdempotenteRepo.inserirSeAusente(recebido) == 1) {
+                ConsumoEnergetico salvo = consumoRepo.findByChaveIdempotencia(recebido.getChaveIdempotencia()).orElseThrow();
+                consumoDiarioService.somar(salvo);
+                publicador.publishEvent(ConsumoAlteradoEvento.inclusao(new ConsumoEstadoDto(salvo)));
+                ConsumoExibicaoDto exibicao = new ConsumoExibicaoDto(salvo);
+                Cache cache = cacheManager.getCache(CACHE_CONSUMOS);
+                if (cache != null) {
+                    cache.put(exibicao.id(), exibicao);
+                }
+                return ConsumoGravacaoDto.gravado(exibicao);
+            }
+            // outra requisição gravou o mesmo par (ou usou a mesma chave) entre o SELECT e o MERGE
+            existente = buscarIdempotente(recebido);
+        }
+
+        ConsumoEnergetico gravado = existente.orElseThrow();
+        if (!mesmaLeitura(gravado, recebido)) {
+            throw new ConsumoConflitoException("Já existe leitura idempotente com outro valor para esta chave (id " + gravado.getId() + ")");
+        }
+        return ConsumoGravacaoDto.gravado(new ConsumoExibicaoDto(gravado));
+    }
+
+    // a chave do cliente acha a requisição original mesmo que ela tenha sido corrigida depois;
+    // sem ela, ou com uma chave nova, vale o par (unidade, data)
+    private Optional<ConsumoEnergetico> buscarIdempotente(ConsumoEnergetico recebido){
+        if (recebido.getChaveCliente() != null) {
+            Optional<ConsumoEnergetico> porCliente = consumoRepo.findByChaveCliente(recebido.getChaveCliente());
+            if (porCliente.isPresent()) {
+                return porCliente;
+            }
+        }
+        return consumoRepo.findByChaveIdempotencia(recebido.getChaveIdempotencia());
+    }
+
+    // variante em lote do gravarIdempotente: por bloco, um SELECT das chaves "unidade|data", a triagem
+    // das ausentes e um executeBatch de MERGE só para as que passaram
+    @Transactional
+    public ConsumoLoteResultadoDto gravarLoteIdempotente(List<ConsumoCadastroDto> registros){
+        List<ConsumoLoteItemDto> itens = new ArrayList<>(registros.size());
+        List<ConsumoEnergetico> pendentes = new ArrayList<>(tamanhoLote);
+        List<Integer> indicesPendentes = new ArrayList<>(tamanhoLote);
+        int aceitos = 0;
+
+        for (int i = 0; i < registros.size(); i++) {
+            ConsumoCadastroDto registro = registros.get(i);
+            Map<String, String> erros = validar(registro);
+            if (!erros.isEmpty()) {
+                itens.add(ConsumoLoteItemDto.rejeitado(i, erros));
+                continue;
+            }
+
+            ConsumoEnergetico entity = entidade(registro);
+            entity.setChaveIdempotencia(chaveIdempotencia(entity.getUnidade(), entity.getData()));
+            pendentes.add(entity);
+            indicesPendentes.add(i);
+
+            if (pendentes.size() == tamanhoLote) {
+                aceitos += descarregarLoteIdempotente(pendentes, indicesPendentes, itens);
+            }
+        }
+        aceitos += descarregarLoteIdempotente(pendentes, indicesPendentes, itens);
+
+        itens.sort((a, b) -> Integer.compare(a.indice(), b.indice()));
+        return new ConsumoLoteResultadoDto(aceitos, registros.size() - aceitos, itens);
+    }
+
+    private int descarregarLoteIdempotente(List<ConsumoEnergetico> pendentes, List<Integer> indices,
+                                           List<ConsumoLoteItemDto> itens){
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        Set<String> chaves = pendentes.stream().map(ConsumoEnergetico::getChaveIdempotencia).collect(Collectors.toSet());
+        Map<String, ConsumoEnergetico> gravados = porChave(consumoRepo.findByChaveIdempotenciaIn(chaves));
+
+        // a mesma chave repetida no bloco só vai uma vez para a triagem e para o MERGE
+        Map<String, ConsumoEnergetico> ausentes = new LinkedHashMap<>();
+        for (ConsumoEnergetico consumo : pendentes) {
+            if (!gravados.containsKey(consumo.getChaveIdempotencia())) {
+                ausentes.putIfAbsent(consumo.getChaveIdempotencia(), consumo);
+            }
+        }
+
+        Map<String, ConsumoQuarentenaDto> barrados = new LinkedHashMap<>();
+        Map<String, Map<String, String>> invalidos = new LinkedHashMap<>();
+        if (!ausentes.isEmpty()) {
+            List<ConsumoEnergetico> candidatos = new ArrayList<>(ausentes.values());
+            List<Optional<ConsumoQuarentenaDto>> triagem = anomaliaService.triarBloco(candidatos.stream()
+                    .map(c -> new ConsumoCadastroDto(c.getQtdConsumo(), c.getData(), c.getUnidade()))
+                    .toList(), null);
+            for (int i = 0; i < candidatos.size(); i++) {
+                String chave = candidatos.get(i).getChaveIdempotencia();
+                if (triagem.get(i).isPresent()) {
+                    barrados.put(chave, triagem.get(i).get());
+                    continue;
+                }
+                Map<String, String> erros = validarEntidade(candidatos.get(i));
+                if (!erros.isEmpty()) {
+                    invalidos.put(chave, erros);
+                }
+            }
+            ausentes.keySet().removeAll(barrados.keySet());
+            ausentes.keySet().removeAll(invalidos.keySet());
+        }
+
+        if (!ausentes.isEmpty()) {
+            List<ConsumoEnergetico> novos = new ArrayList<>(ausentes.values());
+            int[] linhas;
+            try {
+                linhas = consumoIdempotenteRepo.inserirSeAusenteEmLote(novos);
+            } catch (DuplicateKeyException e) {
+                throw new ConsumoConflitoException("Lote gravado em paralelo com as mesmas chaves; repita a requisição");
+            }
+            Map<String, ConsumoEnergetico> inseridos = porChave(consumoRepo.findByChaveIdempotenciaIn(ausentes.keySet()));
+            List<ConsumoEnergetico> nossos = new ArrayList<>(novos.size());
+            for (int i = 0; i < novos.size(); i++) {
+                // 0 = outra transação confirmou a chave antes do MERGE: a linha não é nossa
+                if (linhas[i] != 0) {
+                    nossos.add(inseridos.get(novos.get(i).getChaveIdempotencia()));
+                }
+            }
+            consumoDiarioService.somarTodos(nossos);
+            nossos.forEach(consumo -> publicador.publishEvent(ConsumoAlteradoEvento.inclusao(new ConsumoEstadoDto(consumo))));
+            gravados.putAll(inseridos);
+        }
+
+        int aceitos = 0;
+        for (int i = 0; i < pendentes.size(); i++) {
+            String chave = pendentes.get(i).getChaveIdempotencia();
+            ConsumoQuarentenaDto quarentena = barrados.get(chave);
+            if (quarentena != null) {
+                itens.add(ConsumoLoteItemDto.rejeitado(indices.get(i), Map.of("quarentena",
+                        quarentena.motivo() + ": " + quarentena.detalhe())));
+                continue;
+            }
+            if (invalidos.containsKey(chave)) {
+                itens.add(ConsumoLoteItemDto.rejeitado(indices.get(i), invalidos.get(chave)));
+                continue;
+            }
+            ConsumoEnergetico gravado = gravados.get(chave);
+            if (mesmaLeitura(gravado, pendentes.get(i))) {
+                itens.add(ConsumoLoteItemDto.aceito(indices.get(i), gravado.getId()));
+                aceitos++;
+            } else {
+                itens.add(ConsumoLoteItemDto.rejeitado(indices.get(i),
+                        Map.of("qtdConsumo", "Já existe leitura com outro valor para esta unidade e data (id " + gravado.getId() + ")")));
+            }
+        }
+        entityManager.clear();
+
+        pendentes.clear();
+        indices.clear();
+        return aceitos;
+    }
+
+    // mesmo formato do TO_CHAR(DATA_CONSUMO, 'YYYY-MM-DD') da V12
+    private static String chaveIdempotencia(String unidade, LocalDate data){
+        return unidade + "|" + data;
+    }
+
+    private static String chaveCliente(String chaveCliente){
+        if (chaveCliente == null || chaveCliente.isBlank()) {
+            return null;
         }
+        if (chaveCliente.length() > 150) {
+            throw new ParametroInvalidoException("Idempotency-Key deve ter no máximo 150 caracteres");
+        }
+        return chaveCliente;
+    }
+
+    private static boolean mesmaLeitura(ConsumoEnergetico gravado, ConsumoEnergetico recebido){
+        return Double.compare(gravado.getQtdConsumo(), recebido.getQtdConsumo()) == 0
+                && gravado.getData().equals(recebido.getData())
+                && gravado.getUnidade().equals(recebido.getUnidade());
+    }
+
+    private static Map<String, ConsumoEnergetico> porChave(List<ConsumoEnergetico> consumos){
+        return consumos.stream().collect(Collectors.toMap(ConsumoEnergetico::getChaveIdempotencia, Function.identity()));
     }
+
+    // valida registro a registro e grava os válidos em lotes JDBC, com a triagem feita por bloco;
+    // item nulo = linha ilegível (ex.: NDJSON inválido)
+    @Transactional
+    public ConsumoLoteResultadoDto gravarLote(List<ConsumoCadastroDto> registros){
+        List<ConsumoLoteItemDto> itens = new ArrayList<>(registros.size());
+        List<ConsumoCadastroDto> pendentes = new ArrayList<>(tamanhoLote);
+        List<Integer> indicesPendentes = new ArrayList<>(tamanhoLote);
+        Set<String> chavesDoLote = anomaliaService.habilitada() ? new HashSet<>() : null;
+        int aceitos = 0;
+
+        for (int i = 0; i < registros.size(); i++) {
+            ConsumoCadastroDto registro = registros.get(i);
+            Map<String, String> erros = validar(registro);
+            if (!erros.isEmpty()) {
+                itens.add(ConsumoLoteItemDto.rejeitado(i, erros));
+                continue;
+            }
+            pendentes.add(registro);
+            indicesPendentes.add(i);
+
+            if (pendentes.size() == tamanhoLote) {
+                aceitos += descarregarLote(pendentes, indicesPendentes, itens, chavesDoLote);
+            }
+        }
+        aceitos += descarregarLote(pendentes, indicesPendentes, itens, chavesDoLote);
+
+        itens.sort((a, b) -> Integer.compare(a.indice(), b.indice()));
+        return new ConsumoLoteResultadoDto(aceitos, registros.size() - aceitos, itens);
+    }
+
+    private int descarregarLote(List<ConsumoCadastroDto> pendentes, List<Integer> indices,
+                                List<ConsumoLoteItemDto> itens, Set<String> chavesDoLote){
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        List<Optional<ConsumoQuarentenaDto>> triagem = anomaliaService.triarBloco(pendentes, chavesDoLote);
+        List<ConsumoEnergetico> entidades = new ArrayList<>(pendentes.size());
+        List<Integer> indicesGravados = new ArrayList<>(pendentes.size());
+        for (int i = 0; i < pendentes.size(); i++) {
+            Optional<ConsumoQuarentenaDto> quarentena = triagem.get(i);
+            if (quarentena.isPresent()) {
+                itens.add(ConsumoLoteItemDto.rejeitado(indices.get(i), Map.of("quarentena",
+                        quarentena.get().motivo() + ": " + quarentena.get().detalhe())));
+                continue;
+            }
+            ConsumoEnergetico entidade = entidade(pendentes.get(i));
+            Map<String, String> erros = validarEntidade(entidade);
+            if (!erros.isEmpty()) {
+                itens.add(ConsumoLoteItemDto.rejeitado(indices.get(i), erros));
+                continue;
+            }
+            entidades.add(entidade);
+            indicesGravados.add(indices.get(i));
+        }
+
+        if (!entidades.isEmpty()) {
+            consumoRepo.saveAllAndFlush(entidades);
+            consumoDiarioService.somarTodos(entidades);
+            for (int i = 0; i < entidades.size(); i++) {
+                ConsumoEnergetico gravado = entidades.get(i);
+                itens.add(ConsumoLoteItemDto.aceito(indicesGravados.get(i), gravado.getId()));
+                publicador.publishEvent(ConsumoAlteradoEvento.inclusao(new ConsumoEstadoDto(gravado)));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        pendentes.clear();
+        indices.clear();
+        return entidades.size();
+    }
+
+    private Map<String, String> validar(ConsumoCadastroDto registro){
+        Map<String, String> erros = new LinkedHashMap<>();
+        if (registro == null) {
+            erros.put("registro", "Registro ilegível");
+            return erros;
+        }
+        for (ConstraintViolation<ConsumoCadastroDto> violacao : validator.validate(registro)) {
+            erros.put(violacao.getPropertyPath().toString(), violacao.getMessage());
+        }
+        return erros;
+    }
+
+    // restrições da entidade que o DTO não cobre (qtdConsumo >= 0), checadas depois da triagem (que manda
+    // negativos para a quarentena) e antes do flush: lá a ConstraintViolationException derrubaria o lote inteiro
+    private Map<String, String> validarEntidade(ConsumoEnergetico entidade){
+        Map<String, String> erros = new LinkedHashMap<>();
+        for (ConstraintViolation<ConsumoEnergetico> violacao : validator.validate(entidade)) {
+            erros.put(violacao.getPropertyPath().toString(), violacao.getMessage());
+        }
+        return erros;
+    }
+
+    private void exigirValida(ConsumoEnergetico entidade){
+        Map<String, String> erros = validarEntidade(entidade);
+        if (!erros.isEmpty()) {
+            throw new ParametroInvalidoException(String.join("; ", erros.values()));
+        }
+    }
+
+    // leituras: readOnly põe a sessão do Hibernate em FlushMode.MANUAL (sem dirty checking no commit)
+    // e as consultas projetam direto no DTO, sem carregar entidades no contexto de persistência
+    @Cacheable(cacheNames = CACHE_CONSUMOS, key = "#id")
+    @Transactional(readOnly = true)
+    public ConsumoExibicaoDto BuscarPorId(long id){
+        return consumoRepo.buscarExibicao(id)
+                .orElseThrow(() -> new ConsumoNaoEncontradoException("Consumo não encontrado"));
+    }
+
+    @Transactional(readOnly = true)
     public Page<ConsumoExibicaoDto> listarConsumos(Pageable pageable){
-        return consumoRepo.findAll(pageable).map(ConsumoExibicaoDto::new);
+        return consumoRepo.listarExibicao(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ConsumoExibicaoDto> listarConsumos(ConsumoFiltroDto filtro, Pageable pageable){
+        if (filtro.vazio()) {
+            return listarConsumos(pageable);
+        }
+        if (filtro.de() != null && filtro.ate() != null && filtro.de().isAfter(filtro.ate())) {
+            throw new ParametroInvalidoException("'de' não pode ser posterior a 'ate'");
+        }
+        return consumoProjecaoRepo.listar(ConsumoSpecs.filtrar(filtro), pageable);
+    }
+
+    // cursor vazio = primeira página; busca uma linha a mais para saber se existe próxima
+    @Transactional(readOnly = true)
+    public ConsumoCursorDto listarPorCursor(String cursor, int tamanho){
+        Pageable limite = PageRequest.ofSize(tamanho + 1);
+        List<ConsumoExibicaoDto> consumos;
+        if (cursor == null || cursor.isBlank()) {
+            consumos = consumoRepo.buscarPrimeiros(limite);
+        } else {
+            String[] chave = decodificarCursor(cursor);
+            consumos = consumoRepo.buscarApos(LocalDate.parse(chave[0]), Long.parseLong(chave[1]), limite);
+        }
+
+        String proximo = null;
+        if (consumos.size() > tamanho) {
+            consumos = consumos.subList(0, tamanho);
+            ConsumoExibicaoDto ultimo = consumos.get(tamanho - 1);
+            proximo = codificarCursor(ultimo.data(), ultimo.id());
+        }
+        return new ConsumoCursorDto(consumos, proximo);
+    }
+
+    private static String codificarCursor(LocalDate data, Long id){
+        String chave = data + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
     }
 
-    public void remover(long id){
-        Optional<ConsumoEnergetico> consumoOptional = consumoRepo.findById(id);
-        if(consumoOptional.isPresent()){
-            consumoRepo.delete(consumoOptional.get());
-        }else {
-            throw new ConsumoNaoEncontradoException("Contato nâo encontrado");
+    private static String[] decodificarCursor(String cursor){
+        try {
+            String chave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = chave.split("\\|");
+            LocalDate.parse(partes[0]);
+            Long.parseLong(partes[1]);
+            return partes;
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ParametroInvalidoException("Cursor inválido");
         }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ConsumoAgregadoDto> agregar(String por, LocalDate de, LocalDate ate){
+        LocalDate inicio = de != null ? de : INICIO_PADRAO;
+        LocalDate fim = ate != null ? ate : FIM_PADRAO;
+        if (inicio.isAfter(fim)) {
+            throw new ParametroInvalidoException("'de' não pode ser posterior a 'ate'");
+        }
+        return switch (por.toLowerCase()) {
+            case "unidade" -> consumoDiarioService.agregarPorUnidade(inicio, fim);
+            case "dia" -> consumoDiarioService.agregarPorDia(inicio, fim);
+            case "mes" -> consumoDiarioService.agregarPorMes(inicio, fim);
+            default -> throw new ParametroInvalidoException("Agrupamento inválido: " + por);
+        };
+    }
+
+    // percorre a tabela inteira sem paginação (sem count nem OFFSET); a projeção em DTO
+    // não coloca nada no contexto de persistência, então ele não cresce durante a exportação
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<ConsumoExibicaoDto> destino){
+        try (Stream<ConsumoExibicaoDto> consumos = consumoRepo.streamTodos()) {
+            consumos.forEach(destino);
+        }
+    }
 
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_CONSUMOS, key = "#id")
+    public void remover(long id, Long versaoEsperada){
+        // o estado anterior só é lido para o delta do consolidado diário; o DELETE não carrega a entidade
+        ConsumoEstadoDto removido = consumoRepo.buscarEstado(id)
+                .orElseThrow(() -> new ConsumoNaoEncontradoException("Contato nâo encontrado"));
+        if (versaoEsperada != null && !versaoEsperada.equals(removido.versao())) {
+            throw new ConsumoConflitoException("Consumo alterado por outra requisição (versão " + versaoEsperada + ")");
+        }
+        // condicionado à versão lida: uma correção entre a leitura e o DELETE deixaria o delta errado
+        if (consumoRepo.removerSeVersao(id, removido.versao()) == 0) {
+            if (!consumoRepo.existsById(id)) {
+                throw new ConsumoNaoEncontradoException("Contato nâo encontrado");
+            }
+            throw new ConsumoConflitoException("Consumo alterado por outra requisição (versão " + removido.versao() + ")");
+        }
+        consumoDiarioService.subtrair(removido.unidade(), removido.data(), removido.qtdConsumo());
+        publicador.publishEvent(ConsumoAlteradoEvento.remocao(removido));
     }
+
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_CONSUMOS, key = "#consumoEnergetico.id")
     public ConsumoEnergetico atualizar(ConsumoEnergetico consumoEnergetico){
-        Optional<ConsumoEnergetico> consumoOptional = consumoRepo.findById(consumoEnergetico.getId());
-        if(consumoOptional.isPresent()){
-            return consumoRepo.save(consumoEnergetico);
-        }else{
-            throw new ConsumoNaoEncontradoException("Contato nâo encontrado");
+        ConsumoEstadoDto anterior = consumoRepo.buscarEstado(consumoEnergetico.getId())
+                .orElseThrow(() -> new ConsumoNaoEncontradoException("Contato nâo encontrado"));
+
+        // a versão vem de quem leu o consumo; sem ela a escrita apagaria às cegas uma correção concorrente
+        Long versao = consumoEnergetico.getVersao();
+        if (versao == null) {
+            throw new VersaoObrigatoriaException("Informe a versão lida do consumo para atualizá-lo");
         }
+        int linhas;
+        try {
+            linhas = consumoRepo.atualizarSeVersao(consumoEnergetico.getId(), consumoEnergetico.getQtdConsumo(),
+                    consumoEnergetico.getData(), consumoEnergetico.getUnidade(),
+                    chaveIdempotencia(consumoEnergetico.getUnidade(), consumoEnergetico.getData()), versao);
+        } catch (DataIntegrityViolationException e) {
+            // leitura idempotente movida para um par que já tem outra
+            throw new ConsumoConflitoException("Já existe leitura idempotente para esta unidade e data");
+        }
+        if (linhas == 0) {
+            throw new ConsumoConflitoException("Consumo alterado por outra requisição (versão " + versao + ")");
+        }
+        consumoEnergetico.setVersao(versao + 1);
+
+        consumoDiarioService.subtrair(anterior.unidade(), anterior.data(), anterior.qtdConsumo());
+        consumoDiarioService.somar(consumoEnergetico);
+        publicador.publishEvent(new ConsumoAlteradoEvento(anterior, new ConsumoEstadoDto(consumoEnergetico)));
+        return consumoEnergetico;
     }
 }
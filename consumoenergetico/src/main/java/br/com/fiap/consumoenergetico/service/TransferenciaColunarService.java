@@ -0,0 +1,87 @@
+package br.com.fiap.consumoenergetico.service;
+
+import br.com.fiap.consumoenergetico.colunar.EscritorColunar;
+import br.com.fiap.consumoenergetico.colunar.LeitorColunar;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteItemDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteResultadoDto;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// exportação/importação no formato colunar (.cec, ver FormatoColunar) para mover histórico entre ambientes
+@Service
+@Timed("consumo.service")
+public class TransferenciaColunarService {
+
+    @Autowired
+    private ConsumoService consumoService;
+
+    public long exportar(WritableByteChannel destino) throws IOException {
+        try (EscritorColunar escritor = new EscritorColunar(destino)) {
+            consumoService.exportar(consumo -> {
+                try {
+                    escritor.escrever(consumo.data(), consumo.unidade(), consumo.qtdConsumo());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            // rodapé só quando a leitura terminou: se ela falha no meio, o arquivo fica sem ele
+            escritor.finalizar();
+            return escritor.totalBytes();
+        }
+    }
+
+    // o corpo vai primeiro para um arquivo temporário, que é mapeado em memória e gravado
+    // bloco a bloco (uma transação de gravarLote por bloco); a resposta só lista os rejeitados
+    public ConsumoLoteResultadoDto importar(InputStream origem) throws IOException {
+        Path temporario = Files.createTempFile("consumos-", ".cec");
+        try {
+            copiar(origem, temporario);
+            LeitorColunar leitor = LeitorColunar.mapear(temporario);
+
+            List<ConsumoCadastroDto> bloco = new ArrayList<>();
+            List<ConsumoLoteItemDto> rejeitados = new ArrayList<>();
+            int aceitos = 0;
+            int deslocamento = 0;
+            while (leitor.proximoBloco(bloco)) {
+                ConsumoLoteResultadoDto resultado = consumoService.gravarLote(bloco);
+                aceitos += resultado.aceitos();
+                for (ConsumoLoteItemDto item : resultado.itens()) {
+                    if (!item.aceito()) {
+                        rejeitados.add(ConsumoLoteItemDto.rejeitado(deslocamento + item.indice(), item.erros()));
+                    }
+                }
+                deslocamento += bloco.size();
+                bloco.clear();
+            }
+            return new ConsumoLoteResultadoDto(aceitos, rejeitados.size(), rejeitados);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private static void copiar(InputStream origem, Path destino) throws IOException {
+        try (ReadableByteChannel entrada = Channels.newChannel(origem);
+             FileChannel saida = FileChannel.open(destino, StandardOpenOption.WRITE)) {
+            long posicao = 0;
+            long copiados;
+            while ((copiados = saida.transferFrom(entrada, posicao, 1 << 20)) > 0) {
+                posicao += copiados;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- Leituras barradas (ou apenas sinalizadas) pela etapa de anomalias na gravação
+CREATE SEQUENCE SEQ_CONSUMO_QUARENTENA
+    START WITH 1
+    INCREMENT BY 50
+    NOCACHE
+    NOCYCLE;
+
+CREATE TABLE TBL_CONSUMO_QUARENTENA
+(
+    ID            INTEGER       NOT NULL,
+    QTD_CONSUMO   NUMBER(10, 2) NOT NULL,
+    DATA_CONSUMO  DATE          NOT NULL,
+    UNIDADE       VARCHAR2(100) NOT NULL,
+    MOTIVO        VARCHAR2(30)  NOT NULL,
+    DETALHE       VARCHAR2(255),
+    ESTADO        VARCHAR2(20)  NOT NULL,
+    DATA_REGISTRO TIMESTAMP     NOT NULL,
+    CONSTRAINT PK_CONSUMO_QUARENTENA PRIMARY KEY (ID)
+);
+
+CREATE INDEX IDX_QUARENTENA_MOTIVO_REGISTRO ON TBL_CONSUMO_QUARENTENA (MOTIVO, DATA_REGISTRO);
@@ -0,0 +1,5 @@
+-- Chave de idempotência das gravações idempotentes (Idempotency-Key do cliente ou "unidade|data").
+-- Nula nas gravações comuns; o índice único ignora as linhas sem chave
+ALTER TABLE TBL_CONSUMO ADD CHAVE_IDEMPOTENCIA VARCHAR2(200);
+
+CREATE UNIQUE INDEX UX_CONSUMO_CHAVE_IDEMPOTENCIA ON TBL_CONSUMO (CHAVE_IDEMPOTENCIA);
@@ -0,0 +1,27 @@
+-- Gravação idempotente passa a valer por (UNIDADE, DATA_CONSUMO), com ou sem Idempotency-Key:
+--  * CHAVE_IDEMPOTENCIA = "unidade|data" em toda linha idempotente (nula nas gravações comuns), então o
+--    UX_CONSUMO_CHAVE_IDEMPOTENCIA equivale a um índice único sobre o par restrito às linhas idempotentes
+--  * a Idempotency-Key do cliente vai para CHAVE_CLIENTE, com índice único próprio
+ALTER TABLE TBL_CONSUMO ADD CHAVE_CLIENTE VARCHAR2(150);
+
+UPDATE TBL_CONSUMO SET CHAVE_CLIENTE = SUBSTR(CHAVE_IDEMPOTENCIA, 3) WHERE CHAVE_IDEMPOTENCIA LIKE 'k:%';
+
+-- pares gravados duas vezes pelas chaves antigas ("k:" e "u:"): a linha mais antiga continua idempotente,
+-- as demais viram gravações comuns
+UPDATE TBL_CONSUMO t SET CHAVE_IDEMPOTENCIA = NULL, CHAVE_CLIENTE = NULL
+ WHERE t.CHAVE_IDEMPOTENCIA IS NOT NULL
+   AND EXISTS (SELECT 1 FROM TBL_CONSUMO o
+                WHERE o.CHAVE_IDEMPOTENCIA IS NOT NULL
+                  AND o.UNIDADE = t.UNIDADE
+                  AND o.DATA_CONSUMO = t.DATA_CONSUMO
+                  AND o.ID < t.ID);
+
+-- o índice sai durante a regravação das chaves para não colidir com valores intermediários
+DROP INDEX UX_CONSUMO_CHAVE_IDEMPOTENCIA;
+
+UPDATE TBL_CONSUMO SET CHAVE_IDEMPOTENCIA = UNIDADE || '|' || TO_CHAR(DATA_CONSUMO, 'YYYY-MM-DD')
+ WHERE CHAVE_IDEMPOTENCIA IS NOT NULL;
+
+CREATE UNIQUE INDEX UX_CONSUMO_CHAVE_IDEMPOTENCIA ON TBL_CONSUMO (CHAVE_IDEMPOTENCIA);
+
+CREATE UNIQUE INDEX UX_CONSUMO_CHAVE_CLIENTE ON TBL_CONSUMO (CHAVE_CLIENTE);
@@ -0,0 +1,11 @@
+-- Uma linha por unidade, só para SELECT ... FOR UPDATE: serializa a triagem de anomalias de uma unidade
+-- mesmo quando a (unidade, dia) ainda não tem linha em TBL_CONSUMO nem em TBL_CONSUMO_DIARIO
+CREATE TABLE TBL_CONSUMO_TRAVA
+(
+    UNIDADE VARCHAR2(100) NOT NULL,
+    CONSTRAINT PK_CONSUMO_TRAVA PRIMARY KEY (UNIDADE)
+);
+
+-- unidades existentes já entram traváveis; as novas são criadas na primeira gravação
+INSERT INTO TBL_CONSUMO_TRAVA (UNIDADE)
+SELECT DISTINCT UNIDADE FROM TBL_CONSUMO;
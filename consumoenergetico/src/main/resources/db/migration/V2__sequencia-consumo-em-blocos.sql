@@ -0,0 +1,5 @@
+-- O Hibernate passa a reservar blocos de 50 ids por NEXTVAL (allocationSize = 50),
+-- entao o incremento da sequence precisa ser o mesmo.
+ALTER SEQUENCE SEQ_CONSUMO
+    INCREMENT BY 50
+    CACHE 20;
@@ -0,0 +1,2 @@
+-- Suporte a paginacao por cursor (keyset) ordenada por (DATA_CONSUMO, ID)
+CREATE INDEX IDX_CONSUMO_DATA_ID ON TBL_CONSUMO (DATA_CONSUMO, ID);
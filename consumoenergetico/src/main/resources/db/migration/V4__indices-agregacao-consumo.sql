@@ -0,0 +1,5 @@
+-- Indices de cobertura para as agregacoes (/api/consumo/agregado):
+-- as consultas leem apenas o indice, sem acessar a tabela.
+CREATE INDEX IDX_CONSUMO_UNIDADE_DATA_QTD ON TBL_CONSUMO (UNIDADE, DATA_CONSUMO, QTD_CONSUMO);
+
+CREATE INDEX IDX_CONSUMO_DATA_QTD_UNIDADE ON TBL_CONSUMO (DATA_CONSUMO, QTD_CONSUMO, UNIDADE);
@@ -0,0 +1,17 @@
+-- Consolidado diario por unidade, mantido incrementalmente pela aplicacao
+CREATE TABLE TBL_CONSUMO_DIARIO
+(
+    UNIDADE  VARCHAR2(100) NOT NULL,
+    DIA      DATE          NOT NULL,
+    SOMA     NUMBER(19, 2) NOT NULL,
+    CONTAGEM NUMBER(19)    NOT NULL,
+    MINIMO   NUMBER(10, 2) NOT NULL,
+    MAXIMO   NUMBER(10, 2) NOT NULL,
+    CONSTRAINT PK_CONSUMO_DIARIO PRIMARY KEY (UNIDADE, DIA)
+);
+
+-- backfill inicial a partir das leituras existentes
+INSERT INTO TBL_CONSUMO_DIARIO (UNIDADE, DIA, SOMA, CONTAGEM, MINIMO, MAXIMO)
+SELECT UNIDADE, DATA_CONSUMO, SUM(QTD_CONSUMO), COUNT(*), MIN(QTD_CONSUMO), MAX(QTD_CONSUMO)
+FROM TBL_CONSUMO
+GROUP BY UNIDADE, DATA_CONSUMO;
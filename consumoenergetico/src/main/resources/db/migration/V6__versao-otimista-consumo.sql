@@ -0,0 +1,2 @@
+-- Controle de concorrencia otimista (@Version) das correcoes de leituras
+ALTER TABLE TBL_CONSUMO ADD VERSAO NUMBER(19) DEFAULT 0 NOT NULL;
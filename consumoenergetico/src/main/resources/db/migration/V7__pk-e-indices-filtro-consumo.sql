@@ -0,0 +1,7 @@
+-- A V1 criou TBL_CONSUMO sem chave primaria
+ALTER TABLE TBL_CONSUMO ADD CONSTRAINT PK_CONSUMO PRIMARY KEY (ID);
+
+-- Filtro por faixa de quantidade (e a busca de negativos da manutencao).
+-- Unidade + periodo e periodo isolado ja sao atendidos por IDX_CONSUMO_UNIDADE_DATA_QTD (V4)
+-- e IDX_CONSUMO_DATA_QTD_UNIDADE (V4).
+CREATE INDEX IDX_CONSUMO_QTD ON TBL_CONSUMO (QTD_CONSUMO);
@@ -0,0 +1,71 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+// as agregações do ConsumoDiarioRepo, lidas do consolidado TBL_CONSUMO_DIARIO pelo DatabaseClient
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConsumoDiarioReativoRepo {
+
+    private static final String METRICAS =
+            "SUM(SOMA) AS SOMA, SUM(SOMA) / SUM(CONTAGEM) AS MEDIA, MIN(MINIMO) AS MINIMO, " +
+            "MAX(MAXIMO) AS MAXIMO, SUM(CONTAGEM) AS QUANTIDADE FROM TBL_CONSUMO_DIARIO " +
+            "WHERE DIA BETWEEN :de AND :ate ";
+
+    private static final String POR_UNIDADE =
+            "SELECT UNIDADE AS CHAVE, " + METRICAS + "GROUP BY UNIDADE ORDER BY UNIDADE";
+
+    private static final String POR_DIA =
+            "SELECT DIA, " + METRICAS + "GROUP BY DIA ORDER BY DIA";
+
+    private static final String POR_MES =
+            "SELECT EXTRACT(YEAR FROM DIA) AS ANO, EXTRACT(MONTH FROM DIA) AS MES, " + METRICAS +
+            "GROUP BY EXTRACT(YEAR FROM DIA), EXTRACT(MONTH FROM DIA) ORDER BY ANO, MES";
+
+    private final DatabaseClient databaseClient;
+
+    public ConsumoDiarioReativoRepo(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ConsumoAgregadoDto> agregarPorUnidade(LocalDate de, LocalDate ate) {
+        return consultar(POR_UNIDADE, de, ate, linha -> linha.get("CHAVE", String.class));
+    }
+
+    public Flux<ConsumoAgregadoDto> agregarPorDia(LocalDate de, LocalDate ate) {
+        return consultar(POR_DIA, de, ate, linha -> linha.get("DIA", LocalDate.class).toString());
+    }
+
+    public Flux<ConsumoAgregadoDto> agregarPorMes(LocalDate de, LocalDate ate) {
+        return consultar(POR_MES, de, ate, linha -> String.format("%04d-%02d",
+                numero(linha, "ANO").intValue(), numero(linha, "MES").intValue()));
+    }
+
+    private Flux<ConsumoAgregadoDto> consultar(String sql, LocalDate de, LocalDate ate,
+                                               Function<Readable, String> chave) {
+        return databaseClient.sql(sql)
+                .bind("de", de)
+                .bind("ate", ate)
+                .map(linha -> new ConsumoAgregadoDto(
+                        chave.apply(linha),
+                        numero(linha, "SOMA").doubleValue(),
+                        numero(linha, "MEDIA").doubleValue(),
+                        numero(linha, "MINIMO").doubleValue(),
+                        numero(linha, "MAXIMO").doubleValue(),
+                        numero(linha, "QUANTIDADE").longValue()))
+                .all();
+    }
+
+    // SUM/EXTRACT voltam como NUMBER no Oracle e BIGINT/NUMERIC no H2: lê o tipo nativo do driver
+    private static Number numero(Readable linha, String coluna) {
+        return (Number) linha.get(coluna);
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+// linha de TBL_CONSUMO para o Spring Data R2DBC (a entidade JPA ConsumoEnergetico não serve aqui)
+@Table("TBL_CONSUMO")
+public record ConsumoReativo(
+        @Id
+        @Column("ID")
+        Long id,
+        @Column("QTD_CONSUMO")
+        double qtdConsumo,
+        @Column("DATA_CONSUMO")
+        LocalDate data,
+        @Column("UNIDADE")
+        String unidade,
+        @Column("VERSAO")
+        Long versao
+) {
+    public ConsumoExibicaoDto exibicao() {
+        return new ConsumoExibicaoDto(id, qtdConsumo, data, unidade, versao);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+// variante reativa (perfil Maven "reativo"): WebFlux + R2DBC, só leitura, sobre as tabelas criadas pelas
+// migrações da aplicação principal. Escaneia só este pacote e lê reativo.properties; como o pacote fica
+// dentro do da aplicação MVC, cada componente daqui é condicionado a um contexto web reativo
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        FlywayAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConsumoReativoApplication {
+
+    public static void main(String[] args) {
+        construtor().run(args);
+    }
+
+    // com spring-boot-starter-web no classpath o Boot escolheria o Tomcat; aqui é sempre Netty
+    public static SpringApplicationBuilder construtor() {
+        return new SpringApplicationBuilder(ConsumoReativoApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=reativo");
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoFiltroDto;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// mesmas rotas de leitura do ConsumoController. A listagem sai como array JSON ou, com
+// Accept: application/x-ndjson, uma leitura por linha, escrita assim que chega do banco
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConsumoReativoController {
+
+    @Autowired
+    private ConsumoReativoService consumoReativoService;
+
+    @GetMapping(value = "/consumo", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ConsumoExibicaoDto> listarConsumoEnergetico(
+            @RequestParam(required = false) String unidade,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) Double min,
+            @RequestParam(required = false) Double max,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size){
+        // mesmos limites do Pageable na API MVC (spring.data.web.pageable.max-page-size = 2000)
+        if (page < 0 || size < 1 || size > 2000) {
+            return Flux.error(new ParametroInvalidoException("page deve ser >= 0 e size entre 1 e 2000"));
+        }
+        return consumoReativoService.listar(new ConsumoFiltroDto(unidade, de, ate, min, max), page, size);
+    }
+
+    @GetMapping("/consumo/{id}")
+    public Mono<ConsumoExibicaoDto> buscarConsumo(@PathVariable long id){
+        return consumoReativoService.buscarPorId(id);
+    }
+
+    @GetMapping(value = "/consumo/agregado", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ConsumoAgregadoDto> agregarConsumo(
+            @RequestParam(defaultValue = "unidade") String por,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate){
+        return consumoReativoService.agregar(por, de, ate);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoFiltroDto;
+import org.springframework.data.relational.core.query.Criteria;
+
+// mesmos filtros do ConsumoSpecs (JPA), como Criteria do Spring Data Relational
+final class ConsumoReativoCriterios {
+
+    private ConsumoReativoCriterios() {
+    }
+
+    static Criteria filtrar(ConsumoFiltroDto filtro) {
+        Criteria criterios = Criteria.empty();
+        if (filtro.unidade() != null) {
+            criterios = criterios.and("unidade").is(filtro.unidade());
+        }
+        if (filtro.de() != null) {
+            criterios = criterios.and("data").greaterThanOrEquals(filtro.de());
+        }
+        if (filtro.ate() != null) {
+            criterios = criterios.and("data").lessThanOrEquals(filtro.ate());
+        }
+        if (filtro.min() != null) {
+            criterios = criterios.and("qtdConsumo").greaterThanOrEquals(filtro.min());
+        }
+        if (filtro.max() != null) {
+            criterios = criterios.and("qtdConsumo").lessThanOrEquals(filtro.max());
+        }
+        return criterios;
+    }
+}
@@ -0,0 +1,6 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+public interface ConsumoReativoRepo extends R2dbcRepository<ConsumoReativo, Long> {
+}
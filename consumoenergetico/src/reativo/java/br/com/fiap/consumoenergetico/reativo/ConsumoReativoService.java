@@ -0,0 +1,73 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoFiltroDto;
+import br.com.fiap.consumoenergetico.exception.ConsumoNaoEncontradoException;
+import br.com.fiap.consumoenergetico.exception.ParametroInvalidoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// leituras do ConsumoService sem bloquear: cada linha é emitida conforme o cliente consome (backpressure
+// do R2DBC até o socket), e nenhuma thread fica parada esperando o banco
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConsumoReativoService {
+
+    private static final LocalDate INICIO_PADRAO = LocalDate.of(1900, 1, 1);
+    private static final LocalDate FIM_PADRAO = LocalDate.of(9999, 12, 31);
+
+    // mesma ordem do índice IDX_CONSUMO_DATA_ID
+    private static final Sort ORDEM = Sort.by("data", "id");
+
+    @Autowired
+    private ConsumoReativoRepo consumoReativoRepo;
+
+    @Autowired
+    private ConsumoDiarioReativoRepo consumoDiarioReativoRepo;
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    public Mono<ConsumoExibicaoDto> buscarPorId(long id) {
+        return consumoReativoRepo.findById(id)
+                .map(ConsumoReativo::exibicao)
+                .switchIfEmpty(Mono.error(() -> new ConsumoNaoEncontradoException("Consumo não encontrado")));
+    }
+
+    public Flux<ConsumoExibicaoDto> listar(ConsumoFiltroDto filtro, int pagina, int tamanho) {
+        if (filtro.de() != null && filtro.ate() != null && filtro.de().isAfter(filtro.ate())) {
+            return Flux.error(new ParametroInvalidoException("'de' não pode ser posterior a 'ate'"));
+        }
+        Query consulta = Query.query(ConsumoReativoCriterios.filtrar(filtro))
+                .sort(ORDEM)
+                .offset((long) pagina * tamanho)
+                .limit(tamanho);
+        return template.select(ConsumoReativo.class)
+                .matching(consulta)
+                .all()
+                .map(ConsumoReativo::exibicao);
+    }
+
+    public Flux<ConsumoAgregadoDto> agregar(String por, LocalDate de, LocalDate ate) {
+        LocalDate inicio = de != null ? de : INICIO_PADRAO;
+        LocalDate fim = ate != null ? ate : FIM_PADRAO;
+        if (inicio.isAfter(fim)) {
+            return Flux.error(new ParametroInvalidoException("'de' não pode ser posterior a 'ate'"));
+        }
+        return switch (por.toLowerCase()) {
+            case "unidade" -> consumoDiarioReativoRepo.agregarPorUnidade(inicio, fim);
+            case "dia" -> consumoDiarioReativoRepo.agregarPorDia(inicio, fim);
+            case "mes" -> consumoDiarioReativoRepo.agregarPorMes(inicio, fim);
+            default -> Flux.error(new ParametroInvalidoException("Agrupamento inválido: " + por));
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.fiap.consumoenergetico.benchmark;
+
+import br.com.fiap.consumoenergetico.ConsumoenergeticoApplication;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.reativo.ConsumoReativoApplication;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 256 clientes HTTP disparando consultas por faixa de datas contra o Tomcat + JPA (mvc) e o Netty + R2DBC (reativo),
+// sobre o mesmo H2 em memória. Além de throughput e p50/p90/p99, cada iteração imprime o pico de threads
+// da JVM e de conexões em uso (Hikari no mvc, pool R2DBC no reativo).
+// Autocontido (não usa o ContextoBenchmark) porque também compila só com -Preativo:
+// ./mvnw -Pbenchmark,reativo test-compile exec:exec -Djmh.incluir=Reativo
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(1)
+public class ReativoBenchmark {
+
+    private static final String BANCO = "consumo-reativo-bench";
+    private static final String[] UNIDADES = {"kWh", "MWh", "bloco-a", "bloco-b", "bloco-c"};
+    private static final int LEITURAS = 20_000;
+
+    @Param({"mvc", "reativo"})
+    public String modo;
+
+    private ConfigurableApplicationContext mvc;
+    private ConfigurableApplicationContext reativo;
+    private HttpClient cliente;
+    private String baseUrl;
+    private final AtomicInteger sequencia = new AtomicInteger();
+
+    private Thread amostrador;
+    private volatile int picoThreads;
+    private volatile int picoConexoes;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        // a aplicação MVC cria o esquema e carrega a massa nos dois modos; os argumentos de linha
+        // de comando precedem o application.properties / reativo.properties (Oracle)
+        mvc = new SpringApplicationBuilder(ConsumoenergeticoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + BANCO + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.flyway.enabled=false",
+                "--logging.level.root=WARN");
+        popular(mvc.getBean(ConsumoService.class));
+
+        ConfigurableApplicationContext alvo = mvc;
+        if ("reativo".equals(modo)) {
+            reativo = ConsumoReativoApplication.construtor().run(
+                    "--server.port=0",
+                    "--spring.r2dbc.url=r2dbc:h2:mem:///" + BANCO + "?options=DB_CLOSE_DELAY=-1",
+                    "--spring.r2dbc.username=sa",
+                    "--spring.r2dbc.password=",
+                    "--logging.level.root=WARN");
+            alvo = reativo;
+        }
+        int porta = ((WebServerApplicationContext) alvo).getWebServer().getPort();
+        baseUrl = "http://localhost:" + porta + "/api";
+        cliente = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(32))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void iniciarAmostragem() {
+        picoThreads = 0;
+        picoConexoes = 0;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        amostrador = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                picoThreads = Math.max(picoThreads, threads.getThreadCount());
+                picoConexoes = Math.max(picoConexoes, conexoesEmUso());
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "amostrador-recursos");
+        amostrador.setDaemon(true);
+        amostrador.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void encerrarAmostragem() throws InterruptedException {
+        amostrador.interrupt();
+        amostrador.join();
+        System.out.printf("%n[%s] pico de threads na JVM: %d, pico de conexões em uso: %d%n",
+                modo, picoThreads, picoConexoes);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        if (reativo != null) {
+            reativo.close();
+        }
+        mvc.close();
+    }
+
+    // consulta típica de painel: uma unidade num mês, 50 leituras
+    @Benchmark
+    public int consultarFaixa() throws IOException, InterruptedException {
+        int n = sequencia.getAndIncrement();
+        LocalDate inicio = LocalDate.of(2024, 1, 1).plusMonths(n % 24);
+        String uri = baseUrl + "/consumo?unidade=" + UNIDADES[n % UNIDADES.length]
+                + "&de=" + inicio + "&ate=" + inicio.plusMonths(1).minusDays(1) + "&size=50";
+        return enviar(HttpRequest.newBuilder(URI.create(uri)).GET().build());
+    }
+
+    @Benchmark
+    public int agregarPorDia() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/consumo/agregado?por=dia&de=2024-01-01&ate=2024-03-31"))
+                .GET().build());
+    }
+
+    private int enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int conexoesEmUso() {
+        if (reativo != null) {
+            return reativo.getBean(ConnectionPool.class).getMetrics()
+                    .map(PoolMetrics::acquiredSize)
+                    .orElse(0);
+        }
+        HikariDataSource dataSource = mvc.getBean(HikariDataSource.class);
+        return dataSource.getHikariPoolMXBean() != null ? dataSource.getHikariPoolMXBean().getActiveConnections() : 0;
+    }
+
+    private static void popular(ConsumoService consumoService) {
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        List<ConsumoCadastroDto> lote = new ArrayList<>(1000);
+        for (int n = 0; n < LEITURAS; n++) {
+            lote.add(new ConsumoCadastroDto((double) (n % 1000) / 10, inicio.plusDays(n % 730),
+                    UNIDADES[n % UNIDADES.length]));
+            if (lote.size() == 1000) {
+                consumoService.gravarLote(lote);
+                lote.clear();
+            }
+        }
+    }
+}
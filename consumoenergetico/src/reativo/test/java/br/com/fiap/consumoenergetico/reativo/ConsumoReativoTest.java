@@ -0,0 +1,95 @@
+package br.com.fiap.consumoenergetico.reativo;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoAgregadoDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// a variante reativa sobre H2 via R2DBC, com o esquema e a massa de src/reativo/test/resources/reativo
+@SpringBootTest(
+        classes = ConsumoReativoApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.config.name=reativo",
+                "spring.r2dbc.url=r2dbc:h2:mem:///consumo-reativo?options=DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "spring.sql.init.mode=always",
+                "spring.sql.init.schema-locations=classpath:reativo/schema-h2.sql",
+                "spring.sql.init.data-locations=classpath:reativo/dados-h2.sql"
+        })
+class ConsumoReativoTest {
+
+    @Autowired
+    private WebTestClient cliente;
+
+    @Test
+    void listaComFiltrosNaOrdemDoIndice() {
+        cliente.get().uri("/api/consumo?unidade=kWh&de=2024-01-01&ate=2024-01-31")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ConsumoExibicaoDto.class)
+                .value(consumos -> {
+                    assertEquals(2, consumos.size());
+                    assertEquals(1L, consumos.get(0).id());
+                    assertEquals(2L, consumos.get(1).id());
+                });
+    }
+
+    @Test
+    void listagemEmNdjsonChegaComoFluxo() {
+        Flux<ConsumoExibicaoDto> fluxo = cliente.get().uri("/api/consumo?size=3")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ConsumoExibicaoDto.class)
+                .getResponseBody();
+
+        StepVerifier.create(fluxo, 1)
+                .expectNextMatches(consumo -> consumo.data().equals(LocalDate.of(2024, 1, 10)))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void buscaPorIdEDevolve404QuandoNaoExiste() {
+        cliente.get().uri("/api/consumo/3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ConsumoExibicaoDto.class)
+                .value(consumo -> assertEquals("MWh", consumo.unidade()));
+
+        cliente.get().uri("/api/consumo/999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void agregaPeloConsolidadoDiario() {
+        cliente.get().uri("/api/consumo/agregado?por=mes")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ConsumoAgregadoDto.class)
+                .value(meses -> {
+                    assertEquals(2, meses.size());
+                    assertEquals("2024-01", meses.get(0).chave());
+                    assertEquals(35.0, meses.get(0).soma());
+                    assertEquals(3L, meses.get(0).quantidade());
+                });
+
+        cliente.get().uri("/api/consumo/agregado?por=semana")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
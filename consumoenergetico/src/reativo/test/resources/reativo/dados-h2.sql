@@ -0,0 +1,9 @@
+INSERT INTO TBL_CONSUMO (ID, QTD_CONSUMO, DATA_CONSUMO, UNIDADE, VERSAO) VALUES (1, 10.00, DATE '2024-01-10', 'kWh', 0);
+INSERT INTO TBL_CONSUMO (ID, QTD_CONSUMO, DATA_CONSUMO, UNIDADE, VERSAO) VALUES (2, 20.00, DATE '2024-01-10', 'kWh', 0);
+INSERT INTO TBL_CONSUMO (ID, QTD_CONSUMO, DATA_CONSUMO, UNIDADE, VERSAO) VALUES (3, 5.00, DATE '2024-01-11', 'MWh', 0);
+INSERT INTO TBL_CONSUMO (ID, QTD_CONSUMO, DATA_CONSUMO, UNIDADE, VERSAO) VALUES (4, 7.50, DATE '2024-02-01', 'kWh', 0);
+
+INSERT INTO TBL_CONSUMO_DIARIO (UNIDADE, DIA, SOMA, CONTAGEM, MINIMO, MAXIMO)
+SELECT UNIDADE, DATA_CONSUMO, SUM(QTD_CONSUMO), COUNT(*), MIN(QTD_CONSUMO), MAX(QTD_CONSUMO)
+FROM TBL_CONSUMO
+GROUP BY UNIDADE, DATA_CONSUMO;
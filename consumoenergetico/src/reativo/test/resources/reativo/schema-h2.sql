@@ -0,0 +1,19 @@
+CREATE TABLE TBL_CONSUMO
+(
+    ID           NUMBER(19)    NOT NULL PRIMARY KEY,
+    QTD_CONSUMO  NUMBER(10, 2) NOT NULL,
+    DATA_CONSUMO DATE          NOT NULL,
+    UNIDADE      VARCHAR2(100) NOT NULL,
+    VERSAO       NUMBER(19)    DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE TBL_CONSUMO_DIARIO
+(
+    UNIDADE  VARCHAR2(100) NOT NULL,
+    DIA      DATE          NOT NULL,
+    SOMA     NUMBER(19, 2) NOT NULL,
+    CONTAGEM NUMBER(19)    NOT NULL,
+    MINIMO   NUMBER(10, 2) NOT NULL,
+    MAXIMO   NUMBER(10, 2) NOT NULL,
+    CONSTRAINT PK_CONSUMO_DIARIO PRIMARY KEY (UNIDADE, DIA)
+);
@@ -0,0 +1,149 @@
+package br.com.fiap.consumoenergetico.cluster;
+
+import br.com.fiap.consumoenergetico.ConsumoenergeticoApplication;
+import br.com.fiap.consumoenergetico.analitico.IndiceAnalitico;
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoExibicaoDto;
+import br.com.fiap.consumoenergetico.exception.ConsumoNaoEncontradoException;
+import br.com.fiap.consumoenergetico.model.ConsumoEnergetico;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// duas instâncias da aplicação (dois contextos Spring) na mesma JVM, no mesmo H2 e no BarramentoEmMemoria
+class ClusterTest {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 3, 10);
+
+    private ConfigurableApplicationContext a;
+    private ConfigurableApplicationContext b;
+
+    @BeforeEach
+    void subir() {
+        // só a primeira instância cria o esquema; a segunda usa o mesmo banco
+        a = iniciar("a", "create");
+        b = iniciar("b", "none");
+    }
+
+    @AfterEach
+    void derrubar() {
+        b.close();
+        a.close();
+    }
+
+    @Test
+    void atualizacaoInvalidaOCacheDaOutraInstancia() {
+        ConsumoExibicaoDto gravado = servico(a).gravar(consumo(10.0, "bloco-a"));
+        assertEquals(10.0, servico(b).BuscarPorId(gravado.id()).qtdConsumo());
+
+        ConsumoEnergetico alterado = consumo(25.0, "bloco-a");
+        alterado.setId(gravado.id());
+        alterado.setVersao(gravado.versao());
+        servico(a).atualizar(alterado);
+
+        aguardar(() -> servico(b).BuscarPorId(gravado.id()).qtdConsumo() == 25.0);
+    }
+
+    @Test
+    void remocaoInvalidaOCacheDaOutraInstancia() {
+        ConsumoExibicaoDto gravado = servico(a).gravar(consumo(10.0, "bloco-a"));
+        servico(b).BuscarPorId(gravado.id());
+
+        servico(a).remover(gravado.id(), null);
+
+        aguardar(() -> {
+            try {
+                servico(b).BuscarPorId(gravado.id());
+                return false;
+            } catch (ConsumoNaoEncontradoException e) {
+                return true;
+            }
+        });
+        assertThrows(ConsumoNaoEncontradoException.class, () -> servico(b).BuscarPorId(gravado.id()));
+    }
+
+    @Test
+    void indiceAnaliticoAcompanhaAsGravacoesDaOutraInstancia() {
+        servico(a).gravar(consumo(7.5, "bloco-b"));
+        servico(b).gravar(consumo(2.5, "bloco-b"));
+
+        aguardar(() -> indice(a).somar("bloco-b", DIA, DIA).soma() == 10.0);
+        aguardar(() -> indice(b).somar("bloco-b", DIA, DIA).soma() == 10.0);
+    }
+
+    @Test
+    void instanciasUsamBlocosDeIdsDisjuntos() {
+        Set<Long> ids = new HashSet<>();
+        int gravacoes = 0;
+        for (int i = 0; i < 120; i++) {
+            ids.add(servico(a).gravar(consumo(i, "bloco-a")).id());
+            ids.add(servico(b).gravar(consumo(i, "bloco-b")).id());
+            ConsumoCadastroDto idempotente = new ConsumoCadastroDto((double) i, DIA.plusDays(i), "bloco-c");
+            ids.add(servico(i % 2 == 0 ? a : b).gravarIdempotente(idempotente, null).consumo().id());
+            gravacoes += 3;
+        }
+        assertEquals(gravacoes, ids.size());
+    }
+
+    // argumentos de linha de comando: precedem o application.properties (que aponta para o Oracle)
+    private static ConfigurableApplicationContext iniciar(String no, String ddl) {
+        return new SpringApplicationBuilder(ConsumoenergeticoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:consumo-cluster;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=" + ddl,
+                "--spring.flyway.enabled=false",
+                "--spring.devtools.restart.enabled=false",
+                "--consumo.cluster.habilitado=true",
+                "--consumo.cluster.no=" + no,
+                "--consumo.analitico.habilitado=true");
+    }
+
+    private static ConsumoEnergetico consumo(double qtd, String unidade) {
+        ConsumoEnergetico consumo = new ConsumoEnergetico();
+        consumo.setQtdConsumo(qtd);
+        consumo.setData(DIA);
+        consumo.setUnidade(unidade);
+        return consumo;
+    }
+
+    private static ConsumoService servico(ConfigurableApplicationContext contexto) {
+        return contexto.getBean(ConsumoService.class);
+    }
+
+    private static IndiceAnalitico indice(ConfigurableApplicationContext contexto) {
+        return contexto.getBean(IndiceAnalitico.class);
+    }
+
+    // a entrega no barramento é assíncrona
+    private static void aguardar(BooleanSupplier condicao) {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < limite) {
+            if (condicao.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrompido aguardando o barramento");
+            }
+        }
+        assertTrue(condicao.getAsBoolean(), "Instância não recebeu a mensagem do cluster a tempo");
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.fiap.consumoenergetico.ingestao;
+
+import br.com.fiap.consumoenergetico.dto.ConsumoCadastroDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteItemDto;
+import br.com.fiap.consumoenergetico.dto.ConsumoLoteResultadoDto;
+import br.com.fiap.consumoenergetico.service.ConsumoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// o escritor da fila sem Spring: o ConsumoService é um mock que falha nos lotes com leitura negativa
+class FilaIngestaoTest {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 3, 10);
+
+    @TempDir
+    Path pasta;
+
+    private final ConsumoService consumoService = mock(ConsumoService.class);
+    private final AtomicBoolean bancoFora = new AtomicBoolean();
+    private FilaIngestao fila;
+
+    @BeforeEach
+    void subir() throws IOException {
+        when(consumoService.gravarLote(anyList())).thenAnswer(chamada -> {
+            List<ConsumoCadastroDto> registros = chamada.getArgument(0);
+            if (bancoFora.get()) {
+                throw new CannotCreateTransactionException("banco fora");
+            }
+            if (registros.stream().anyMatch(r -> r.qtdConsumo() < 0)) {
+                throw new DataIntegrityViolationException("qtdConsumo não pode ser negativa");
+            }
+            List<ConsumoLoteItemDto> itens = new ArrayList<>();
+            for (int i = 0; i < registros.size(); i++) {
+                itens.add(ConsumoLoteItemDto.aceito(i, 100L + i));
+            }
+            return new ConsumoLoteResultadoDto(itens.size(), 0, itens);
+        });
+        fila = iniciar();
+    }
+
+    @AfterEach
+    void derrubar() throws IOException {
+        fila.fechar();
+    }
+
+    @Test
+    void leituraQueFalhaSozinhaERejeitadaEAsDemaisSaoGravadas() throws IOException {
+        String negativa = fila.aceitar(new ConsumoCadastroDto(-1.0, DIA, "kWh")).orElseThrow();
+        String valida = fila.aceitar(new ConsumoCadastroDto(5.0, DIA, "kWh")).orElseThrow();
+
+        fila.drenar();
+
+        assertEquals("REJEITADO", fila.status(negativa).orElseThrow().estado());
+        assertEquals("GRAVADO", fila.status(valida).orElseThrow().estado());
+
+        // as duas foram confirmadas no diário: nada volta depois de reiniciar
+        fila.fechar();
+        fila = iniciar();
+        assertTrue(fila.status(negativa).isEmpty());
+        assertTrue(fila.status(valida).isEmpty());
+    }
+
+    @Test
+    void bancoForaMantemOLoteParaOProximoCiclo() {
+        String valida = fila.aceitar(new ConsumoCadastroDto(5.0, DIA, "kWh")).orElseThrow();
+
+        bancoFora.set(true);
+        fila.drenar();
+        assertEquals("PENDENTE", fila.status(valida).orElseThrow().estado());
+
+        bancoFora.set(false);
+        fila.drenar();
+        assertEquals("GRAVADO", fila.status(valida).orElseThrow().estado());
+    }
+
+    private FilaIngestao iniciar() throws IOException {
+        FilaIngestao nova = new FilaIngestao(100, 10, pasta.resolve("ingestao.ndjson").toString(), false,
+                consumoService, new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        nova.recuperar();
+        return nova;
+    }
+}
@@ -21,6 +21,9 @@ import java.util.Scanner;
 
 import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 
 /**
@@ -35,6 +38,7 @@ public class ConsumoSteps {
     private String baseUrl;
     private Response lastResponse;
     private Long lastId;
+    private Long lastVersao;
     private String payloadTemporario; // usado nos cenários com DataTable
 
     private final ObjectMapper mapper = new ObjectMapper();
@@ -83,11 +87,13 @@ public class ConsumoSteps {
 
     @Quando("eu faço GET para {string}")
     public void eu_faco_get_para(String path) {
+        // suporta placeholder {id-salvo}
+        String resolved = path.replace("{id-salvo}", String.valueOf(lastId));
         lastResponse = RestAssured
                 .given()
                 .accept(ContentType.JSON)
                 .when()
-                .get(path)
+                .get(resolved)
                 .then()
                 .extract().response();
     }
@@ -107,12 +113,24 @@ public class ConsumoSteps {
 
     @Quando("eu faço PUT para {string} com o payload {string} \\(injetando o id salvo)")
     public void eu_faco_put_para_injetando_id_saldo(String path, String payloadFile) throws Exception {
+        put(path, payloadFile, false);
+    }
+
+    @Quando("eu faço PUT para {string} com o payload {string} \\(injetando o id e a versão salvos)")
+    public void eu_faco_put_para_injetando_id_e_versao(String path, String payloadFile) throws Exception {
+        put(path, payloadFile, true);
+    }
+
+    private void put(String path, String payloadFile, boolean comVersao) throws Exception {
         String body = readResource("payloads/" + payloadFile);
         JsonNode root = mapper.readTree(body);
         if (!(root instanceof ObjectNode)) {
             throw new IllegalArgumentException("Payload de update deve ser um objeto JSON");
         }
         ((ObjectNode) root).put("id", lastId);
+        if (comVersao) {
+            ((ObjectNode) root).put("versao", lastVersao);
+        }
 
         lastResponse = RestAssured
                 .given()
@@ -126,8 +144,9 @@ public class ConsumoSteps {
 
     @Quando("eu faço DELETE para {string}")
     public void eu_faco_delete_para(String path) {
-        // suporta placeholder {id-salvo}
-        String resolved = path.replace("{id-salvo}", String.valueOf(lastId));
+        // suporta placeholders {id-salvo} e {versao-salva}
+        String resolved = path.replace("{id-salvo}", String.valueOf(lastId))
+                .replace("{versao-salva}", String.valueOf(lastVersao));
         lastResponse = RestAssured
                 .given()
                 .when()
@@ -136,6 +155,19 @@ public class ConsumoSteps {
                 .extract().response();
     }
 
+    @Quando("eu faço POST binário para {string} com o payload {string}")
+    public void eu_faco_post_binario_para_com_payload(String path, String payloadFile) {
+        byte[] body = readResource("payloads/" + payloadFile).getBytes(StandardCharsets.UTF_8);
+        lastResponse = RestAssured
+                .given()
+                .contentType(ContentType.BINARY)
+                .body(body)
+                .when()
+                .post(path)
+                .then()
+                .extract().response();
+    }
+
     // ===== DataTable (seu exemplo em PT) =====
 
     @Dado("que eu tenha os seguintes dados do consumo:")
@@ -176,6 +208,7 @@ public class ConsumoSteps {
                     + lastResponse.statusCode() + " body=" + lastResponse.asString());
         }
         lastId = lastResponse.jsonPath().getLong("id");
+        lastVersao = lastResponse.jsonPath().getLong("versao");
     }
 
     // =========================
@@ -214,4 +247,19 @@ public class ConsumoSteps {
             lastId = ((Number) valor).longValue();
         }
     }
-}
\ No newline at end of file
+
+    @E("o campo {string} deve ser {int}")
+    public void o_campo_deve_ser(String campo, Integer valor) {
+        lastResponse.then().body(campo, equalTo(valor));
+    }
+
+    @E("o campo {string} deve ser o id salvo")
+    public void o_campo_deve_ser_o_id_salvo(String campo) {
+        assertThat(lastResponse.jsonPath().getLong(campo), equalTo(lastId));
+    }
+
+    @E("a resposta não deve ter o campo {string}")
+    public void a_resposta_nao_deve_ter_o_campo(String campo) {
+        assertThat(lastResponse.jsonPath().getMap("$"), not(hasKey(campo)));
+    }
+}
@@ -29,8 +29,17 @@ Funcionalidade: Gestão de Consumo Energético (ESG)
   @positivo
   Cenário: Atualizar consumo existente
     Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
-    Quando eu faço PUT para "/consumo" com o payload "consumo-update.json" (injetando o id salvo)
+    Quando eu faço PUT para "/consumo" com o payload "consumo-update.json" (injetando o id e a versão salvos)
     Então o status da resposta deve ser 200
+    E a resposta deve obedecer o schema "consumo-exibicao-schema.json"
+    E a resposta não deve ter o campo "chaveIdempotencia"
+    E a resposta não deve ter o campo "chaveCliente"
+
+  @negativo
+  Cenário: Impedir atualização sem a versão lida
+    Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
+    Quando eu faço PUT para "/consumo" com o payload "consumo-update.json" (injetando o id salvo)
+    Então o status da resposta deve ser 428
 
   @positivo
   Cenário: Remover consumo existente
@@ -38,6 +47,13 @@ Funcionalidade: Gestão de Consumo Energético (ESG)
     Quando eu faço DELETE para "/consumo/{id-salvo}"
     Então o status da resposta deve ser 204
 
+  @negativo
+  Cenário: Impedir remoção de consumo alterado depois da leitura
+    Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
+    Quando eu faço PUT para "/consumo" com o payload "consumo-update.json" (injetando o id e a versão salvos)
+    E eu faço DELETE para "/consumo/{id-salvo}?versao={versao-salva}"
+    Então o status da resposta deve ser 409
+
   # Exemplo no seu formato (com tabela de dados)
   @positivo @tabela
   Cenário: Cadastro bem-sucedido de consumo via tabela
@@ -49,3 +65,89 @@ Funcionalidade: Gestão de Consumo Energético (ESG)
     Quando eu enviar a requisição para o endpoint "/consumo" de cadastro de consumos
     Então o status da resposta deve ser 201
     E a resposta deve obedecer o schema "consumo-exibicao-schema.json"
+
+  @positivo @lote
+  Cenário: Cadastrar consumos em lote com um registro inválido
+    Quando eu faço POST para "/consumo/lote" com o payload "consumo-lote.json"
+    Então o status da resposta deve ser 200
+    E o campo "aceitos" deve ser 2
+    E o campo "rejeitados" deve ser 1
+
+  @negativo @lote
+  Cenário: Rejeitar só o registro negativo de um lote
+    Quando eu faço POST para "/consumo/lote" com o payload "consumo-lote-negativo.json"
+    Então o status da resposta deve ser 200
+    E o campo "aceitos" deve ser 2
+    E o campo "rejeitados" deve ser 1
+
+  @negativo
+  Cenário: Impedir cadastro com consumo negativo
+    Dado que eu tenha os seguintes dados do consumo:
+      | campo      | valor      |
+      | qtdConsumo | -1.5       |
+      | data       | 2025-10-01 |
+      | unidade    | kWh        |
+    Quando eu enviar a requisição para o endpoint "/consumo" de cadastro de consumos
+    Então o status da resposta deve ser 400
+
+  @positivo @cursor
+  Cenário: Listar consumos por cursor (sem contagem)
+    Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
+    Quando eu faço GET para "/consumo?cursor=&tamanho=5"
+    Então o status da resposta deve ser 200
+    E a resposta deve obedecer o schema "cursor-consumo-schema.json"
+
+  @positivo @agregado
+  Cenário: Agregar consumo por mês no banco
+    Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
+    Quando eu faço GET para "/consumo/agregado?por=mes&de=2025-01-01&ate=2025-12-31"
+    Então o status da resposta deve ser 200
+
+  @negativo @agregado
+  Cenário: Rejeitar agrupamento desconhecido
+    Quando eu faço GET para "/consumo/agregado?por=ano"
+    Então o status da resposta deve ser 400
+
+  @positivo @cache
+  Cenário: Buscar consumo por id
+    Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
+    Quando eu faço GET para "/consumo/{id-salvo}"
+    Então o status da resposta deve ser 200
+    E a resposta deve obedecer o schema "consumo-exibicao-schema.json"
+
+  @negativo @cache
+  Cenário: Buscar consumo inexistente
+    Quando eu faço GET para "/consumo/999999999"
+    Então o status da resposta deve ser 404
+
+  @positivo @filtro
+  Cenário: Listar consumos filtrando por unidade e período
+    Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
+    Quando eu faço GET para "/consumo?unidade=kWh&de=2025-10-01&ate=2025-10-31&min=0"
+    Então o status da resposta deve ser 200
+    E a resposta deve obedecer o schema "page-consumo-schema.json"
+
+  @positivo @colunar
+  Cenário: Exportar consumos no formato colunar
+    Dado que eu tenho um consumo cadastrado via "consumo-valido.json"
+    Quando eu faço GET para "/consumo/exportar?formato=colunar"
+    Então o status da resposta deve ser 200
+
+  @negativo @colunar
+  Cenário: Rejeitar importação de arquivo que não é colunar
+    Quando eu faço POST binário para "/consumo/importar" com o payload "consumo-valido.json"
+    Então o status da resposta deve ser 400
+
+  @positivo @quarentena
+  Cenário: Listar leituras em quarentena
+    Quando eu faço GET para "/consumo/quarentena?motivo=NEGATIVO"
+    Então o status da resposta deve ser 200
+
+  @positivo @idempotente
+  Cenário: Repetir a gravação idempotente não duplica a leitura
+    Quando eu faço POST para "/consumo?idempotente=true" com o payload "consumo-valido.json"
+    Então o status da resposta deve ser 201
+    E eu salvo o "id" retornado
+    Quando eu faço POST para "/consumo?idempotente=true" com o payload "consumo-valido.json"
+    Então o status da resposta deve ser 201
+    E o campo "id" deve ser o id salvo